@@ -0,0 +1,46 @@
+-- Base de Datos: banking_accounts
+-- Microservicio: ms-cuentas
+-- Tabla movement particionada por mes (accounts.movements.partitioning.enabled=true)
+-- Ejecutar en lugar de la definición de movement de BaseDatos.sql, antes del primer arranque
+-- del servicio: Flyway encuentra la tabla ya creada y no la sustituye (CREATE TABLE IF NOT EXISTS).
+-- La clave primaria incluye la fecha porque PostgreSQL exige que contenga la clave de partición.
+-- No es compatible con accounts.balance.mode=ledger: la unicidad de (account_id, ledger_sequence)
+-- solo podría garantizarse dentro de cada partición.
+
+CREATE TABLE IF NOT EXISTS movement (
+    movement_id BIGINT NOT NULL,
+    date TIMESTAMP NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    value DECIMAL(15, 2) NOT NULL,
+    balance DECIMAL(15, 2) NOT NULL,
+    account_id BIGINT NOT NULL,
+    ledger_sequence BIGINT,
+    CONSTRAINT pk_movement PRIMARY KEY (movement_id, date),
+    CONSTRAINT fk_movement_account FOREIGN KEY (account_id) REFERENCES account(account_id)
+) PARTITION BY RANGE (date);
+
+-- Se propaga a cada partición; mismo índice que la migración V8 de ms-cuentas
+CREATE INDEX IF NOT EXISTS idx_movement_account_date
+    ON movement (account_id, date, movement_id)
+    INCLUDE (movement_type, value, balance, ledger_sequence);
+
+-- Particiones del mes en curso y los tres siguientes; MovementPartitionManager crea las
+-- siguientes y desvincula las que superan accounts.movements.partitioning.retention-months
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', now());
+BEGIN
+    FOR i IN 0..3 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF movement FOR VALUES FROM (%L) TO (%L)',
+                       'movement_p' || to_char(first_month + make_interval(months => i), 'YYYYMM'),
+                       first_month + make_interval(months => i),
+                       first_month + make_interval(months => i + 1));
+    END LOOP;
+END $$;
+
+-- Migración desde una tabla movement sin particionar:
+--   1. ALTER TABLE movement RENAME TO movement_old;
+--   2. Ejecutar este script y crear particiones que cubran el rango de fechas de movement_old.
+--   3. INSERT INTO movement SELECT movement_id, date, movement_type, value, balance, account_id,
+--      ledger_sequence FROM movement_old;
+--   4. DROP TABLE movement_old;
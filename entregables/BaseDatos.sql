@@ -1,4 +1,7 @@
 
+-- Los servicios aplican este esquema con Flyway al arrancar (src/main/resources/db/migration);
+-- este script reúne el resultado de todas las migraciones para crearlo a mano.
+
 -- Base de Datos: banking_clients
 -- Microservicio: ms-clientes
 -- Ejecutar estas sentencias en la base de datos 'banking_clients'
@@ -9,7 +12,9 @@ CREATE TABLE IF NOT EXISTS person (
     gender VARCHAR(20),
     identification VARCHAR(20) NOT NULL UNIQUE,
     address VARCHAR(200),
-    phone VARCHAR(20)
+    phone VARCHAR(20),
+    -- Se incrementa en cada cambio y viaja en los eventos de clientes
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS customer (
@@ -19,25 +24,104 @@ CREATE TABLE IF NOT EXISTS customer (
     CONSTRAINT fk_customer_person FOREIGN KEY (person_id) REFERENCES person(person_id)
 );
 
+-- Eventos de clientes pendientes de publicar en RabbitMQ (patrón outbox). Se escriben en la
+-- misma transacción que el cambio del cliente y se borran cuando el broker los confirma.
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
 -- Base de Datos: banking_accounts
 -- Microservicio: ms-cuentas
 -- Ejecutar estas sentencias en la base de datos 'banking_accounts'
 
+-- Identificadores asignados por Hibernate en bloques de 50 (pooled) para permitir inserts por lotes
+CREATE SEQUENCE IF NOT EXISTS account_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS movement_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS account (
-    account_id BIGSERIAL PRIMARY KEY,
+    account_id BIGINT PRIMARY KEY,
     account_number VARCHAR(50) NOT NULL UNIQUE,
     account_type VARCHAR(20) NOT NULL,
     initial_balance DECIMAL(15, 2) NOT NULL,
     status BOOLEAN NOT NULL,
-    client_id BIGINT NOT NULL
+    client_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS movement (
-    movement_id BIGSERIAL PRIMARY KEY,
+    movement_id BIGINT PRIMARY KEY,
     date TIMESTAMP NOT NULL,
     movement_type VARCHAR(20) NOT NULL,
     value DECIMAL(15, 2) NOT NULL,
     balance DECIMAL(15, 2) NOT NULL,
     account_id BIGINT NOT NULL,
-    CONSTRAINT fk_movement_account FOREIGN KEY (account_id) REFERENCES account(account_id)
+    ledger_sequence BIGINT,
+    CONSTRAINT fk_movement_account FOREIGN KEY (account_id) REFERENCES account(account_id),
+    CONSTRAINT uk_movement_ledger_sequence UNIQUE (account_id, ledger_sequence)
+);
+
+-- En una base con datos previos, las secuencias continúan después de los identificadores ya asignados
+SELECT setval('account_seq', COALESCE(MAX(account_id), 0) + 50) FROM account;
+SELECT setval('movement_seq', COALESCE(MAX(movement_id), 0) + 50) FROM movement;
+
+-- Cuentas de un cliente (findByClientId)
+CREATE INDEX IF NOT EXISTS idx_account_client_id ON account (client_id);
+
+-- Movimientos por cuenta y rango de fechas, con las columnas de los reportes incluidas
+CREATE INDEX IF NOT EXISTS idx_movement_account_date
+    ON movement (account_id, date, movement_id)
+    INCLUDE (movement_type, value, balance, ledger_sequence);
+
+-- Réplica de clientes alimentada por los eventos de ms-clientes
+CREATE TABLE IF NOT EXISTS customer_replica (
+    customer_id BIGINT PRIMARY KEY,
+    name VARCHAR(255),
+    -- Versión del último evento aplicado; los eventos con versión menor o igual se descartan
+    version BIGINT NOT NULL DEFAULT -1
+);
+
+-- Saldo al cierre de cada día con movimientos y totales del día (saldo inicial de los reportes)
+CREATE TABLE IF NOT EXISTS daily_balance (
+    account_id BIGINT NOT NULL,
+    balance_date DATE NOT NULL,
+    closing_balance DECIMAL(15, 2) NOT NULL,
+    total_debits DECIMAL(15, 2) NOT NULL,
+    total_credits DECIMAL(15, 2) NOT NULL,
+    last_movement_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (account_id, balance_date),
+    CONSTRAINT fk_daily_balance_account FOREIGN KEY (account_id) REFERENCES account(account_id)
+);
+
+-- Saldos consolidados en modo libro mayor (accounts.balance.mode=ledger)
+CREATE TABLE IF NOT EXISTS balance_snapshot (
+    account_id BIGINT PRIMARY KEY,
+    balance DECIMAL(15, 2) NOT NULL,
+    ledger_sequence BIGINT NOT NULL,
+    taken_at TIMESTAMP NOT NULL
+);
+
+-- Sub-saldos de cuentas de alto volumen (accounts.balance.sharding.accounts)
+CREATE TABLE IF NOT EXISTS account_balance_slot (
+    account_id BIGINT NOT NULL,
+    slot INT NOT NULL,
+    balance DECIMAL(15, 2) NOT NULL,
+    PRIMARY KEY (account_id, slot),
+    CONSTRAINT fk_balance_slot_account FOREIGN KEY (account_id) REFERENCES account(account_id)
+);
+
+-- Claves de idempotencia persistentes (opcional, accounts.idempotency.persistent=true)
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    idempotency_key VARCHAR(128) PRIMARY KEY,
+    request_hash BIGINT,
+    movement_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Posición aplicada del journal local de movimientos (accounts.movements.durability=journal)
+CREATE TABLE IF NOT EXISTS journal_checkpoint (
+    name VARCHAR(64) PRIMARY KEY,
+    position BIGINT NOT NULL
 );
@@ -0,0 +1,111 @@
+-- Base de Datos: banking_accounts
+-- Microservicio: ms-cuentas
+-- Generador de datos para la tabla movement particionada (BaseDatos-particionado.sql) y
+-- comprobación de la poda de particiones en las consultas paginadas de MovementRepository.
+--
+-- Ejecutar con psql, con el servicio detenido:
+--   psql -d banking_accounts -v cuentas=100000 -v movimientos=100000000 -v meses=24 \
+--        -f GeneradorMovimientos.sql
+-- Sin -v se usan los valores por defecto de abajo (un millón de movimientos, para probar el script).
+--
+-- Cada cuenta recibe créditos de 10.00 en orden de fecha, así que el saldo de cada movimiento es
+-- el saldo acumulado real y los extractos generados cuadran con account.initial_balance.
+-- Con 100 millones de filas conviene crear el índice después de la carga: ejecutar primero
+-- BaseDatos-particionado.sql sin el CREATE INDEX y lanzarlo al terminar este script.
+
+\if :{?cuentas}
+\else
+\set cuentas 10000
+\endif
+\if :{?movimientos}
+\else
+\set movimientos 1000000
+\endif
+\if :{?meses}
+\else
+\set meses 12
+\endif
+
+-- Primer mes con datos y primeros identificadores libres
+SELECT date_trunc('month', localtimestamp) - make_interval(months => :meses - 1) AS inicio,
+       (SELECT COALESCE(MAX(account_id), 0) FROM account) AS base_cuenta,
+       (SELECT COALESCE(MAX(movement_id), 0) FROM movement) AS base_movimiento
+\gset
+
+-- Particiones de los meses generados; las del mes en curso en adelante ya las crea
+-- BaseDatos-particionado.sql o MovementPartitionManager
+SELECT format('CREATE TABLE IF NOT EXISTS %I PARTITION OF movement FOR VALUES FROM (%L) TO (%L)',
+              'movement_p' || to_char(mes, 'YYYYMM'), mes, mes + interval '1 month')
+FROM generate_series(:'inicio'::timestamp, date_trunc('month', localtimestamp), interval '1 month') AS mes
+\gexec
+
+BEGIN;
+
+-- La cuenta r (0-based) recibe los movimientos g con (g - 1) % cuentas = r
+INSERT INTO account (account_id, account_number, account_type, initial_balance, status, client_id, version)
+SELECT :base_cuenta + r + 1,
+       'GEN' || lpad((:base_cuenta + r + 1)::text, 12, '0'),
+       CASE WHEN r % 2 = 0 THEN 'Ahorro' ELSE 'Corriente' END,
+       10.00 * ((:movimientos::bigint - 1 - r) / :cuentas + 1),
+       TRUE,
+       r % 1000 + 1,
+       0
+FROM generate_series(0, :cuentas - 1) AS r;
+
+-- Fechas repartidas uniformemente desde el inicio hasta ahora, crecientes con g
+INSERT INTO movement (movement_id, date, movement_type, value, balance, account_id)
+SELECT :base_movimiento + g,
+       :'inicio'::timestamp + (g - 1) * ((localtimestamp - :'inicio'::timestamp) / :movimientos),
+       'Credito',
+       10.00,
+       10.00 * ((g - 1) / :cuentas + 1),
+       :base_cuenta + (g - 1) % :cuentas + 1
+FROM generate_series(1, :movimientos::bigint) AS g;
+
+COMMIT;
+
+-- Las secuencias continúan después de los identificadores generados (ver V2__pooled_sequences.sql)
+SELECT setval('account_seq', COALESCE(MAX(account_id), 0) + 50) FROM account;
+SELECT setval('movement_seq', COALESCE(MAX(movement_id), 0) + 50) FROM movement;
+
+ANALYZE account;
+ANALYZE movement;
+
+-- Poda de particiones
+--
+-- Las dos consultas siguientes son las que Hibernate genera para findPageAfter y
+-- findStatementPageAfter, con los parámetros que usan el extracto del último mes y su
+-- paginación. En ambos planes el nodo Append solo debe listar las particiones del rango
+-- (movement_pAAAAMM del mes anterior y del mes en curso), cada una con un Index Scan sobre
+-- (account_id, date, movement_id); ninguna otra partición debe aparecer. Si aparecen todas, la
+-- consulta ha perdido la cota inferior de fecha y recorre la historia completa de la cuenta.
+--
+-- Los parámetros van como literales para que la poda se haga al planificar. Con sentencias
+-- preparadas y plan genérico la poda se hace al ejecutar, y el plan muestra
+-- "Subplans Removed: N" en el Append.
+
+SELECT date_trunc('month', localtimestamp) - interval '1 month' AS desde,
+       localtimestamp AS hasta,
+       :base_cuenta + 1 AS cuenta
+\gset
+
+-- findPageAfter: primera página del extracto de una cuenta
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT m.movement_id, m.account_id, m.balance, m.date, m.ledger_sequence, m.movement_type, m.value
+FROM movement m
+WHERE m.account_id = :cuenta
+  AND m.date >= :'desde'::timestamp AND m.date <= :'hasta'::timestamp
+  AND (m.date > :'desde'::timestamp OR (m.date = :'desde'::timestamp AND m.movement_id > 0))
+ORDER BY m.date, m.movement_id
+LIMIT 500;
+
+-- findStatementPageAfter: primera página del informe de tres cuentas del mismo cliente
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT m.movement_id, m.account_id, m.balance, m.date, m.ledger_sequence, m.movement_type, m.value
+FROM movement m
+WHERE m.account_id IN (:cuenta, :cuenta + 1000, :cuenta + 2000)
+  AND m.date BETWEEN :'desde'::timestamp AND :'hasta'::timestamp
+  AND (m.account_id > 0 OR (m.account_id = 0
+       AND (m.date > :'desde'::timestamp OR (m.date = :'desde'::timestamp AND m.movement_id > 0))))
+ORDER BY m.account_id, m.date, m.movement_id
+LIMIT 500;
@@ -19,8 +19,11 @@ public class CustomerController implements CustomerApi {
     private final CustomerService customerService;
 
     @Override
-    public Mono<ResponseEntity<Flux<CustomerResponse>>> getAllCustomers(ServerWebExchange exchange) {
-        return Mono.just(ResponseEntity.ok(customerService.getAllCustomers()));
+    public Mono<ResponseEntity<Flux<CustomerResponse>>> getAllCustomers(Long afterId, Integer limit, ServerWebExchange exchange) {
+        Flux<CustomerResponse> customers = afterId == null && limit == null
+                ? customerService.getAllCustomers()
+                : customerService.getCustomers(afterId, limit);
+        return Mono.just(ResponseEntity.ok(customers));
     }
 
     @Override
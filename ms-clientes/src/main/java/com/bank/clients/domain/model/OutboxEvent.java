@@ -0,0 +1,35 @@
+package com.bank.clients.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer event waiting to be published, written in the same transaction as the change it
+ * describes. Rows are deleted once the broker has confirmed them.
+ */
+@Data
+@Entity
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    /**
+     * The event body as JSON.
+     */
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
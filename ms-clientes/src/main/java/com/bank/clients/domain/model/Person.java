@@ -7,6 +7,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 @Data
@@ -29,4 +30,11 @@ public class Person {
     private String address;
 
     private String phone;
+
+    /**
+     * Incremented on every change and sent with customer events, so consumers can tell newer
+     * state from older.
+     */
+    @Version
+    private Long version;
 }
@@ -1,9 +1,18 @@
 package com.bank.clients.domain.repository;
 
 import com.bank.clients.domain.model.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    /**
+     * The next page of customers in id order after {@code afterId}. Seeks on the primary key
+     * instead of using OFFSET, so deep pages cost the same as the first one.
+     */
+    List<Customer> findByPersonIdGreaterThanOrderByPersonIdAsc(Long afterId, Limit limit);
 }
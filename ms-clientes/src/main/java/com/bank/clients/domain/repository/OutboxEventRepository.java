@@ -0,0 +1,20 @@
+package com.bank.clients.domain.repository;
+
+import com.bank.clients.domain.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest events, locked until the caller's transaction ends. Rows already locked by
+     * another relay are skipped, so several instances can drain the outbox side by side. Events
+     * are then published in no global order; only each batch is in id order.
+     */
+    @Query(value = "SELECT * FROM outbox_event ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(int limit);
+}
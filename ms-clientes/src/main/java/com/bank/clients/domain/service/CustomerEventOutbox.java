@@ -0,0 +1,36 @@
+package com.bank.clients.domain.service;
+
+import com.bank.clients.domain.model.OutboxEvent;
+import com.bank.clients.domain.repository.OutboxEventRepository;
+import com.bank.clients.model.dto.CustomerResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records customer events in the outbox table. Must be called inside the transaction that
+ * changes the customer, so the event is stored if and only if the change commits;
+ * {@link OutboxRelay} publishes it afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public void add(CustomerResponse customer) {
+        OutboxEvent event = new OutboxEvent();
+        event.setCustomerId(customer.getCustomerId());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(customer));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize customer event " + customer.getCustomerId(), e);
+        }
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+}
@@ -7,6 +7,7 @@ import reactor.core.publisher.Mono;
 
 public interface CustomerService {
     Flux<CustomerResponse> getAllCustomers();
+    Flux<CustomerResponse> getCustomers(Long afterId, Integer limit);
     Mono<CustomerResponse> getCustomerById(Long id);
     Mono<CustomerResponse> createCustomer(CustomerRequest customerRequest);
     Mono<CustomerResponse> updateCustomer(Long id, CustomerRequest customerRequest);
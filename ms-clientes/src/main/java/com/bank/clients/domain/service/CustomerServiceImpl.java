@@ -1,32 +1,61 @@
 package com.bank.clients.domain.service;
 
-import com.bank.clients.config.RabbitMQConfig;
 import com.bank.clients.domain.model.Customer;
 import com.bank.clients.domain.repository.CustomerRepository;
 import com.bank.clients.model.dto.CustomerRequest;
 import com.bank.clients.model.dto.CustomerResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final CustomerEventOutbox customerEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Scheduler blockingScheduler;
+
+    @Value("${clients.pagination.max-limit:1000}")
+    private final int maxPageSize;
 
+    /**
+     * Streams every customer, reading them one keyset page at a time rather than loading the whole
+     * table at once.
+     */
     @Override
     @Transactional(readOnly = true)
     public Flux<CustomerResponse> getAllCustomers() {
-        return Mono.fromCallable(customerRepository::findAll)
+        return customerPage(Long.MIN_VALUE, maxPageSize)
+                .expand(page -> page.size() < maxPageSize
+                        ? Mono.empty()
+                        : customerPage(page.get(page.size() - 1).getPersonId(), maxPageSize))
+                // Ask for one page at a time; the default prefetch would read up to 256 pages ahead
+                // of a slow subscriber.
+                .concatMapIterable(Function.identity(), 1)
+                .map(this::convertToResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<CustomerResponse> getCustomers(Long afterId, Integer limit) {
+        if (limit != null && limit <= 0) {
+            return Flux.error(new RuntimeException("Page limit must be greater than zero"));
+        }
+        int size = limit != null ? Math.min(limit, maxPageSize) : maxPageSize;
+        return customerPage(afterId != null ? afterId : Long.MIN_VALUE, size)
                 .flatMapMany(Flux::fromIterable)
-                .map(this::convertToResponse)
-                .subscribeOn(Schedulers.boundedElastic());
+                .map(this::convertToResponse);
     }
 
     @Override
@@ -35,39 +64,36 @@ public class CustomerServiceImpl implements CustomerService {
         return Mono.fromCallable(() -> customerRepository.findById(id)
                         .map(this::convertToResponse)
                         .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id)))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(blockingScheduler);
     }
 
+    /**
+     * The customer and its event are committed together; {@link OutboxRelay} publishes the event
+     * afterwards, so the broker is never on the request path. Saves are flushed so the event
+     * carries the version the change is committed with.
+     */
     @Override
-    @Transactional
     public Mono<CustomerResponse> createCustomer(CustomerRequest customerRequest) {
-        return Mono.fromCallable(() -> {
-                    Customer customer = convertToEntity(customerRequest);
-                    Customer savedCustomer = customerRepository.save(customer);
-                    
-                    // Enviar evento
-                    rabbitTemplate.convertAndSend(RabbitMQConfig.CUSTOMER_EVENTS_QUEUE, convertToResponse(savedCustomer));
-                    
-                    return convertToResponse(savedCustomer);
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+                    Customer savedCustomer = customerRepository.saveAndFlush(convertToEntity(customerRequest));
+                    CustomerResponse response = convertToResponse(savedCustomer);
+                    customerEventOutbox.add(response);
+                    return response;
+                }))
+                .subscribeOn(blockingScheduler);
     }
 
     @Override
-    @Transactional
     public Mono<CustomerResponse> updateCustomer(Long id, CustomerRequest customerRequest) {
-        return Mono.fromCallable(() -> customerRepository.findById(id)
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> customerRepository.findById(id)
                         .map(existingCustomer -> {
                             updateCustomerFromRequest(existingCustomer, customerRequest);
-                            Customer updatedCustomer = customerRepository.save(existingCustomer);
-                            
-                            // Enviar evento
-                            rabbitTemplate.convertAndSend(RabbitMQConfig.CUSTOMER_EVENTS_QUEUE, convertToResponse(updatedCustomer));
-                            
-                            return convertToResponse(updatedCustomer);
+                            CustomerResponse response = convertToResponse(customerRepository.saveAndFlush(existingCustomer));
+                            customerEventOutbox.add(response);
+                            return response;
                         })
-                        .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id)))
-                .subscribeOn(Schedulers.boundedElastic());
+                        .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id))))
+                .subscribeOn(blockingScheduler);
     }
 
     @Override
@@ -80,10 +106,15 @@ public class CustomerServiceImpl implements CustomerService {
                         throw new RuntimeException("Customer not found with id: " + id);
                     }
                 })
-                .subscribeOn(Schedulers.boundedElastic())
+                .subscribeOn(blockingScheduler)
                 .then();
     }
 
+    private Mono<List<Customer>> customerPage(Long afterId, int size) {
+        return Mono.fromCallable(() -> customerRepository.findByPersonIdGreaterThanOrderByPersonIdAsc(afterId, Limit.of(size)))
+                .subscribeOn(blockingScheduler);
+    }
+
     private CustomerResponse convertToResponse(Customer customer) {
         CustomerResponse response = new CustomerResponse();
         response.setCustomerId(customer.getPersonId());
@@ -93,6 +124,7 @@ public class CustomerServiceImpl implements CustomerService {
         response.setAddress(customer.getAddress());
         response.setPhone(customer.getPhone());
         response.setStatus(customer.isStatus());
+        response.setVersion(customer.getVersion());
         return response;
     }
 
@@ -0,0 +1,88 @@
+package com.bank.clients.domain.service;
+
+import com.bank.clients.config.RabbitMQConfig;
+import com.bank.clients.domain.model.OutboxEvent;
+import com.bank.clients.domain.repository.OutboxEventRepository;
+import com.bank.clients.model.dto.CustomerResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Publishes the outbox to RabbitMQ in batches. Each batch is locked, sent on one channel, and
+ * deleted only after the broker confirms every message in it; if the broker is unreachable or
+ * nacks, the transaction rolls back and the batch is sent again on the next run. Delivery is
+ * therefore at least once.
+ *
+ * <p>Order is kept only within one relay's batch. Relays on other instances drain other rows side
+ * by side (see {@link OutboxEventRepository#lockNextBatch(int)}), and a batch that failed part way
+ * is sent again in full, so consumers must not rely on arrival order: ms-cuentas applies an event
+ * only if it carries a newer customer version.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${clients.outbox.batch-size:200}")
+    private final int batchSize;
+
+    @Value("${clients.outbox.confirm-timeout:PT5S}")
+    private final Duration confirmTimeout;
+
+    @Scheduled(fixedDelayString = "${clients.outbox.relay-interval:PT0.5S}")
+    public void relay() {
+        try {
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize);
+        } catch (RuntimeException e) {
+            System.out.println("Could not relay customer events, retrying later: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number of events published.
+     */
+    public int relayBatch() {
+        Integer sent = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            rabbitTemplate.invoke(operations -> {
+                events.forEach(event -> operations.send(RabbitMQConfig.CUSTOMER_EVENTS_QUEUE, toMessage(event)));
+                operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+                return null;
+            });
+            outboxEventRepository.deleteAllInBatch(events);
+            return events.size();
+        });
+        return sent != null ? sent : 0;
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(String.valueOf(event.getId()))
+                // Same type header Jackson2JsonMessageConverter would add.
+                .setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, CustomerResponse.class.getName())
+                .build();
+    }
+}
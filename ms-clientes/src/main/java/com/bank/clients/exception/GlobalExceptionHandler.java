@@ -1,5 +1,6 @@
 package com.bank.clients.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,13 +31,25 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public Mono<ResponseEntity<Map<String, String>>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        System.out.println("Optimistic Lock Conflict: " + ex.getMessage());
+        return Mono.just(
+                ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Customer was updated concurrently, please retry"))
+        );
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public Mono<ResponseEntity<Map<String, String>>> handleRuntimeException(RuntimeException ex) {
         System.out.println("Caught RuntimeException: " + ex.getClass().getName() + " - " + ex.getMessage());
         ex.printStackTrace();
-        
+
+        HttpStatus status = ex.getMessage() != null && ex.getMessage().contains("must be greater than zero")
+                ? HttpStatus.BAD_REQUEST
+                : HttpStatus.NOT_FOUND;
         return Mono.just(
-                ResponseEntity.status(HttpStatus.NOT_FOUND)
+                ResponseEntity.status(status)
                         .body(Map.of("error", ex.getMessage() != null ? ex.getMessage() : "Unknown error"))
         );
     }
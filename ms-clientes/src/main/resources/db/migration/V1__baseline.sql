@@ -0,0 +1,19 @@
+-- Esquema inicial de banking_clients, tal como lo creaba ddl-auto antes de usar Flyway. En bases
+-- existentes Flyway lo marca como aplicado (spring.flyway.baseline-on-migrate) y solo ejecuta las
+-- migraciones posteriores, que deben poder aplicarse sobre él.
+
+CREATE TABLE IF NOT EXISTS person (
+    person_id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    gender VARCHAR(20),
+    identification VARCHAR(20) NOT NULL UNIQUE,
+    address VARCHAR(200),
+    phone VARCHAR(20)
+);
+
+CREATE TABLE IF NOT EXISTS customer (
+    person_id BIGINT PRIMARY KEY,
+    password VARCHAR(255) NOT NULL,
+    status BOOLEAN NOT NULL,
+    CONSTRAINT fk_customer_person FOREIGN KEY (person_id) REFERENCES person(person_id)
+);
@@ -0,0 +1,8 @@
+-- Eventos de clientes pendientes de publicar en RabbitMQ (patrón outbox). Se escriben en la
+-- misma transacción que el cambio del cliente y se borran cuando el broker los confirma.
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
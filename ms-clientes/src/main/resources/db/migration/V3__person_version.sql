@@ -0,0 +1,3 @@
+-- Versión del cliente, incrementada en cada cambio y enviada en los eventos para que ms-cuentas
+-- descarte los eventos repetidos o desordenados.
+ALTER TABLE person ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -2,23 +2,30 @@ package com.bank.clients.unit;
 
 import com.bank.clients.domain.model.Customer;
 import com.bank.clients.domain.repository.CustomerRepository;
+import com.bank.clients.domain.service.CustomerEventOutbox;
 import com.bank.clients.domain.service.CustomerServiceImpl;
 import com.bank.clients.model.dto.CustomerRequest;
 import com.bank.clients.model.dto.CustomerResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -29,13 +36,21 @@ class CustomerServiceImplTest {
     private CustomerRepository customerRepository;
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private CustomerEventOutbox customerEventOutbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
     private CustomerServiceImpl customerService;
 
+    @BeforeEach
+    void setUp() {
+        customerService = new CustomerServiceImpl(customerRepository, customerEventOutbox,
+                new TransactionTemplate(transactionManager), Schedulers.immediate(), 2);
+    }
+
     @Test
-    void createCustomer_shouldReturnCustomerResponseAndSendEvent() {
+    void createCustomer_shouldReturnCustomerResponse_andRecordEventInOutbox() {
         CustomerRequest request = new CustomerRequest();
         request.setName("Jose Lema");
         request.setPassword("1234");
@@ -49,7 +64,7 @@ class CustomerServiceImplTest {
         savedCustomer.setStatus(true);
         savedCustomer.setIdentification("1234567890");
 
-        when(customerRepository.save(any(Customer.class))).thenReturn(savedCustomer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(savedCustomer);
 
         Mono<CustomerResponse> result = customerService.createCustomer(request);
 
@@ -57,28 +72,64 @@ class CustomerServiceImplTest {
                 .expectNextMatches(response -> response.getName().equals("Jose Lema"))
                 .verifyComplete();
         
-        verify(rabbitTemplate).convertAndSend(eq("customer.events.queue"), any(CustomerResponse.class));
+        verify(customerEventOutbox).add(argThat(event -> event.getCustomerId() == 1L));
     }
 
     @Test
-    void getAllCustomers_shouldReturnAllCustomers() {
-        Customer customer1 = new Customer();
-        customer1.setPersonId(1L);
-        customer1.setName("Customer 1");
-
-        Customer customer2 = new Customer();
-        customer2.setPersonId(2L);
-        customer2.setName("Customer 2");
+    void getAllCustomers_shouldReadEveryCustomer_pageByPage() {
+        Customer customer1 = customer(1L, "Customer 1");
+        Customer customer2 = customer(2L, "Customer 2");
+        Customer customer3 = customer(3L, "Customer 3");
 
-        when(customerRepository.findAll()).thenReturn(List.of(customer1, customer2));
+        when(customerRepository.findByPersonIdGreaterThanOrderByPersonIdAsc(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(customer1, customer2));
+        when(customerRepository.findByPersonIdGreaterThanOrderByPersonIdAsc(2L, Limit.of(2)))
+                .thenReturn(List.of(customer3));
 
         Flux<CustomerResponse> result = customerService.getAllCustomers();
 
         StepVerifier.create(result)
+                .expectNextMatches(response -> response.getCustomerId() == 1L)
+                .expectNextMatches(response -> response.getCustomerId() == 2L)
+                .expectNextMatches(response -> response.getCustomerId() == 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllCustomers_shouldReadPagesOnDemand_whenSubscriberIsSlow() {
+        // Every page is full, so there is always another one to read.
+        AtomicInteger pagesRead = new AtomicInteger();
+        when(customerRepository.findByPersonIdGreaterThanOrderByPersonIdAsc(any(), eq(Limit.of(2)))).thenAnswer(invocation -> {
+            long page = pagesRead.incrementAndGet();
+            return List.of(customer(page * 2 - 1, "Customer"), customer(page * 2, "Customer"));
+        });
+
+        StepVerifier.create(customerService.getAllCustomers(), 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        // The page being consumed and at most one read ahead.
+        assertTrue(pagesRead.get() <= 2, "pages read: " + pagesRead.get());
+    }
+
+    @Test
+    void getCustomers_shouldSeekPastCursor_andCapLimit() {
+        when(customerRepository.findByPersonIdGreaterThanOrderByPersonIdAsc(5L, Limit.of(2)))
+                .thenReturn(List.of(customer(6L, "Customer 6"), customer(7L, "Customer 7")));
+
+        StepVerifier.create(customerService.getCustomers(5L, 50))
                 .expectNextCount(2)
                 .verifyComplete();
     }
 
+    @Test
+    void getCustomers_shouldFail_whenLimitIsNotPositive() {
+        StepVerifier.create(customerService.getCustomers(null, -1))
+                .expectErrorMessage("Page limit must be greater than zero")
+                .verify();
+    }
+
     @Test
     void getCustomerById_shouldReturnCustomer() {
         Customer customer = new Customer();
@@ -95,7 +146,7 @@ class CustomerServiceImplTest {
     }
 
     @Test
-    void updateCustomer_shouldUpdateAndReturnCustomer() {
+    void updateCustomer_shouldUpdateAndRecordVersionedEvent() {
         CustomerRequest request = new CustomerRequest();
         request.setName("Jose Lema Updated");
         request.setPassword("5678");
@@ -108,9 +159,10 @@ class CustomerServiceImplTest {
         Customer updatedCustomer = new Customer();
         updatedCustomer.setPersonId(1L);
         updatedCustomer.setName("Jose Lema Updated");
+        updatedCustomer.setVersion(3L);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(existingCustomer));
-        when(customerRepository.save(any(Customer.class))).thenReturn(updatedCustomer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(updatedCustomer);
 
         Mono<CustomerResponse> result = customerService.updateCustomer(1L, request);
 
@@ -118,7 +170,7 @@ class CustomerServiceImplTest {
                 .expectNextMatches(response -> response.getName().equals("Jose Lema Updated"))
                 .verifyComplete();
 
-        verify(rabbitTemplate).convertAndSend(eq("customer.events.queue"), any(CustomerResponse.class));
+        verify(customerEventOutbox).add(argThat(event -> event.getCustomerId() == 1L && event.getVersion() == 3L));
     }
 
     @Test
@@ -130,6 +182,8 @@ class CustomerServiceImplTest {
         StepVerifier.create(result)
                 .expectErrorMessage("Customer not found with id: 99")
                 .verify();
+        verify(customerEventOutbox, never()).add(any());
+        verify(transactionManager).rollback(any());
     }
 
     @Test
@@ -153,4 +207,11 @@ class CustomerServiceImplTest {
                 .expectErrorMessage("Customer not found with id: 99")
                 .verify();
     }
+
+    private Customer customer(Long personId, String name) {
+        Customer customer = new Customer();
+        customer.setPersonId(personId);
+        customer.setName(name);
+        return customer;
+    }
 }
@@ -0,0 +1,96 @@
+package com.bank.clients.unit;
+
+import com.bank.clients.domain.model.OutboxEvent;
+import com.bank.clients.domain.repository.OutboxEventRepository;
+import com.bank.clients.domain.service.OutboxRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations channel;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, rabbitTemplate, new TransactionTemplate(transactionManager),
+                2, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void relay_shouldPublishBatches_andDeleteThemOnceConfirmed() {
+        List<OutboxEvent> first = List.of(event(1L), event(2L));
+        List<OutboxEvent> second = List.of(event(3L));
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(first, second);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(channel));
+
+        relay.relay();
+
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(channel, times(3)).send(eq("customer.events.queue"), messages.capture());
+        assertEquals("{\"customerId\":3}", new String(messages.getAllValues().get(2).getBody(), StandardCharsets.UTF_8));
+        verify(channel, times(2)).waitForConfirmsOrDie(5000);
+        verify(outboxEventRepository).deleteAllInBatch(first);
+        verify(outboxEventRepository).deleteAllInBatch(second);
+    }
+
+    @Test
+    void relay_shouldKeepEvents_whenBrokerDoesNotConfirm() {
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(event(1L)));
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(channel));
+        doThrow(new AmqpException("nack")).when(channel).waitForConfirmsOrDie(anyLong());
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    private OutboxEvent event(Long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setCustomerId(id);
+        event.setPayload("{\"customerId\":" + id + "}");
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bank.accounts.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Reactive persistence, enabled with the {@code r2dbc} profile: movements, account CRUD and the
+ * customer replica upsert run over this pool. Reports and the movement partition job still use
+ * JPA; moving them is a follow-up.
+ * R2DBC auto-configuration is excluded in {@code MsCuentasApplication} so the default profile
+ * does not need an R2DBC URL; JPA stays the primary transaction manager for everything else.
+ */
+@Configuration
+@Profile("r2dbc")
+public class R2dbcConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(@Value("${spring.r2dbc.url}") String url,
+                                            @Value("${spring.r2dbc.username}") String username,
+                                            @Value("${spring.r2dbc.password}") String password,
+                                            @Value("${spring.r2dbc.pool.initial-size:2}") int initialSize,
+                                            @Value("${spring.r2dbc.pool.max-size:8}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionPool connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public ReactiveTransactionManager reactiveTransactionManager(ConnectionPool connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveTransactionManager reactiveTransactionManager) {
+        return TransactionalOperator.create(reactiveTransactionManager);
+    }
+
+    // Declaring a ReactiveTransactionManager switches off the JPA auto-configured one, so it is
+    // registered here explicitly and marked primary for @Transactional and TransactionTemplate.
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -1,12 +1,17 @@
 package com.bank.accounts.config;
 
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -21,4 +26,33 @@ public class RabbitMQConfig {
         template.setMessageConverter(jsonMessageConverter());
         return template;
     }
+
+    /**
+     * Delivers customer events to the listener as lists of up to {@code batch-size} messages. A
+     * batch is handed over when full or when no message arrived for {@code receive-timeout}, and
+     * is acknowledged as a whole once the listener returns.
+     *
+     * <p>Only one consumer runs unless {@code max-concurrency} is raised: versioned events are safe
+     * to apply in any order, but events without a version from older ms-clientes instances are not.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory customerEventsContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${accounts.customer-events.batch-size:100}") int batchSize,
+            @Value("${accounts.customer-events.prefetch:250}") int prefetch,
+            @Value("${accounts.customer-events.concurrency:1}") int concurrency,
+            @Value("${accounts.customer-events.max-concurrency:${accounts.customer-events.concurrency:1}}") int maxConcurrency,
+            @Value("${accounts.customer-events.receive-timeout:PT0.1S}") Duration receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setReceiveTimeout(receiveTimeout.toMillis());
+        return factory;
+    }
 }
@@ -0,0 +1,25 @@
+package com.bank.accounts.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class SchedulerConfig {
+
+    /**
+     * Scheduler for blocking JPA work. {@code bounded-elastic} (default) uses Reactor's shared
+     * platform-thread pool; {@code virtual} runs each blocking section on its own virtual thread.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${accounts.scheduler.mode:bounded-elastic}") String mode) {
+        if ("virtual".equalsIgnoreCase(mode)) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "blocking-virtual");
+        }
+        return Schedulers.boundedElastic();
+    }
+}
@@ -19,8 +19,11 @@ public class AccountController implements AccountApi {
     private final AccountService accountService;
 
     @Override
-    public Mono<ResponseEntity<Flux<AccountResponse>>> getAllAccounts(ServerWebExchange exchange) {
-        return Mono.just(ResponseEntity.ok(accountService.getAllAccounts()));
+    public Mono<ResponseEntity<Flux<AccountResponse>>> getAllAccounts(Long afterId, Integer limit, ServerWebExchange exchange) {
+        Flux<AccountResponse> accounts = afterId == null && limit == null
+                ? accountService.getAllAccounts()
+                : accountService.getAccounts(afterId, limit);
+        return Mono.just(ResponseEntity.ok(accounts));
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.bank.accounts.controller;
 
 import com.bank.accounts.controller.api.MovementApi;
 import com.bank.accounts.domain.service.MovementService;
+import com.bank.accounts.model.dto.MovementBatchResponse;
 import com.bank.accounts.model.dto.MovementRequest;
 import com.bank.accounts.model.dto.MovementResponse;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -18,9 +20,15 @@ public class MovementController implements MovementApi {
     private final MovementService movementService;
 
     @Override
-    public Mono<ResponseEntity<MovementResponse>> createMovement(Mono<MovementRequest> movementRequest, ServerWebExchange exchange) {
+    public Mono<ResponseEntity<MovementResponse>> createMovement(Mono<MovementRequest> movementRequest, String idempotencyKey, ServerWebExchange exchange) {
         return movementRequest
-                .flatMap(movementService::createMovement)
+                .flatMap(request -> movementService.createMovement(request, idempotencyKey))
                 .map(movement -> ResponseEntity.status(HttpStatus.CREATED).body(movement));
     }
+
+    @Override
+    public Mono<ResponseEntity<MovementBatchResponse>> createMovementsBatch(Flux<MovementRequest> movementRequest, ServerWebExchange exchange) {
+        return movementService.createMovements(movementRequest)
+                .map(ResponseEntity::ok);
+    }
 }
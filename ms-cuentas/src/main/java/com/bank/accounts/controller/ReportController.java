@@ -2,11 +2,15 @@ package com.bank.accounts.controller;
 
 import com.bank.accounts.controller.api.ReportsApi;
 import com.bank.accounts.domain.service.ReportService;
+import com.bank.accounts.model.dto.AccountStatementLine;
 import com.bank.accounts.model.dto.AccountStatementReport;
+import com.bank.accounts.model.dto.ActivitySummaryReport;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
@@ -18,8 +22,26 @@ public class ReportController implements ReportsApi {
     private final ReportService reportService;
 
     @Override
-    public Mono<ResponseEntity<AccountStatementReport>> getAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate, ServerWebExchange exchange) {
-        return reportService.getAccountStatement(clientId, startDate, endDate)
+    public Mono<ResponseEntity<AccountStatementReport>> getAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate,
+                                                                            String cursor, Integer limit, ServerWebExchange exchange) {
+        Mono<AccountStatementReport> report = cursor == null && limit == null
+                ? reportService.getAccountStatement(clientId, startDate, endDate)
+                : reportService.getAccountStatementPage(clientId, startDate, endDate, cursor, limit);
+        return report.map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<ActivitySummaryReport>> getActivitySummary(Long clientId, LocalDate startDate, LocalDate endDate,
+                                                                          String period, ServerWebExchange exchange) {
+        return reportService.getActivitySummary(clientId, startDate, endDate, period)
                 .map(ResponseEntity::ok);
     }
+
+    @Override
+    public Mono<ResponseEntity<Flux<AccountStatementLine>>> streamAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate, ServerWebExchange exchange) {
+        // A missing client fails before the first line is written, so it still maps to 404.
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reportService.streamAccountStatement(clientId, startDate, endDate)));
+    }
 }
@@ -0,0 +1,44 @@
+package com.bank.accounts.controller;
+
+import com.bank.accounts.controller.api.ReportJobsApi;
+import com.bank.accounts.domain.service.ReportJobService;
+import com.bank.accounts.model.dto.ReportJob;
+import com.bank.accounts.model.dto.ReportJobRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+public class ReportJobController implements ReportJobsApi {
+
+    private final ReportJobService reportJobService;
+
+    @Override
+    public Mono<ResponseEntity<ReportJob>> submitReportJob(Mono<ReportJobRequest> reportJobRequest, ServerWebExchange exchange) {
+        return reportJobRequest
+                .flatMap(request -> reportJobService.submit(request.getClientId(), request.getStartDate(), request.getEndDate()))
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job));
+    }
+
+    @Override
+    public Mono<ResponseEntity<ReportJob>> getReportJob(String jobId, ServerWebExchange exchange) {
+        return reportJobService.getJob(jobId)
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Resource>> getReportJobResult(String jobId, ServerWebExchange exchange) {
+        // A file resource is written with zero-copy transfer by the reactive server.
+        return reportJobService.getResult(jobId)
+                .map(path -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(new FileSystemResource(path)));
+    }
+}
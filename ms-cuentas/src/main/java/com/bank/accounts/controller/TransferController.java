@@ -0,0 +1,26 @@
+package com.bank.accounts.controller;
+
+import com.bank.accounts.controller.api.TransferApi;
+import com.bank.accounts.domain.service.TransferService;
+import com.bank.accounts.model.dto.TransferRequest;
+import com.bank.accounts.model.dto.TransferResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+public class TransferController implements TransferApi {
+
+    private final TransferService transferService;
+
+    @Override
+    public Mono<ResponseEntity<TransferResponse>> createTransfer(Mono<TransferRequest> transferRequest, ServerWebExchange exchange) {
+        return transferRequest
+                .flatMap(transferService::createTransfer)
+                .map(transfer -> ResponseEntity.status(HttpStatus.CREATED).body(transfer));
+    }
+}
@@ -1,18 +1,23 @@
 package com.bank.accounts.domain.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @Entity
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long accountId;
 
     @Column(unique = true, nullable = false)
@@ -21,12 +26,18 @@ public class Account {
     @Column(nullable = false)
     private String accountType;
 
-    @Column(nullable = false)
-    private Double initialBalance;
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long initialBalance;
 
     @Column(nullable = false)
     private boolean status;
 
     @Column(nullable = false)
     private Long clientId;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,40 @@
+package com.bank.accounts.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One of the sub-balances of a sharded account. The account's balance is its own
+ * {@code initialBalance} plus the sum of its slots.
+ */
+@Data
+@Entity
+@IdClass(AccountBalanceSlot.Key.class)
+public class AccountBalanceSlot {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private int slot;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long balance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private int slot;
+    }
+}
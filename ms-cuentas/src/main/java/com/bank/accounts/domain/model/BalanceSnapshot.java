@@ -0,0 +1,31 @@
+package com.bank.accounts.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpointed balance of an account in ledger mode: the balance after every movement up to and
+ * including {@code ledgerSequence}. Only the latest checkpoint per account is kept.
+ */
+@Data
+@Entity
+public class BalanceSnapshot {
+
+    @Id
+    private Long accountId;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long balance;
+
+    @Column(nullable = false)
+    private long ledgerSequence;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -12,7 +12,17 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class CustomerReplica {
 
+    /**
+     * Version of events from producers that predate versioning. Such events always apply.
+     */
+    public static final long UNVERSIONED = -1;
+
     @Id
     private Long customerId;
     private String name;
+
+    /**
+     * Version of the newest customer event applied, or {@link #UNVERSIONED} if none had one.
+     */
+    private Long version;
 }
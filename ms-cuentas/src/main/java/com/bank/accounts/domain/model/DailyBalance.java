@@ -0,0 +1,54 @@
+package com.bank.accounts.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Balance checkpoint of an account for one day with movements: the balance after the day's last
+ * movement and the day's debit and credit totals. Written together with each movement, so a
+ * statement can find its opening balance without reading earlier movements.
+ */
+@Data
+@Entity
+@IdClass(DailyBalance.Key.class)
+public class DailyBalance {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private LocalDate balanceDate;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long closingBalance;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long totalDebits;
+
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long totalCredits;
+
+    @Column(nullable = false)
+    private LocalDateTime lastMovementAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate balanceDate;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bank.accounts.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(length = 128)
+    private String idempotencyKey;
+
+    /**
+     * {@link com.bank.accounts.domain.service.IdempotencyStore#requestHash} of the request that
+     * used the key; null for keys recorded before it was stored.
+     */
+    private Long requestHash;
+
+    @Column(nullable = false)
+    private Long movementId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord(String idempotencyKey, Long requestHash, Long movementId, LocalDateTime createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.movementId = movementId;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.accounts.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Journal position up to which movements have been applied to the database. It is written in the
+ * same transaction as the movements it covers, so each journal entry is applied exactly once.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long position;
+}
@@ -0,0 +1,50 @@
+package com.bank.accounts.domain.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A movement accepted into the write-ahead journal but not necessarily applied to the database
+ * yet. {@code balance} is the account balance right after the movement, in minor units.
+ */
+public record JournalEntry(long accountId, String accountNumber, String movementType,
+                           long value, long balance, long epochMillis) {
+
+    public long signedValue() {
+        return "Debito".equalsIgnoreCase(movementType) ? -value : value;
+    }
+
+    public LocalDateTime date() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(accountId);
+            out.writeUTF(accountNumber);
+            out.writeUTF(movementType);
+            out.writeLong(value);
+            out.writeLong(balance);
+            out.writeLong(epochMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static JournalEntry decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return new JournalEntry(in.readLong(), in.readUTF(), in.readUTF(), in.readLong(), in.readLong(), in.readLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.accounts.domain.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+        return minorUnits != null ? Money.toDecimal(minorUnits) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount != null ? Money.toMinorUnits(amount) : null;
+    }
+}
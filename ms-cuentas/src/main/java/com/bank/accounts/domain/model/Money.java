@@ -0,0 +1,36 @@
+package com.bank.accounts.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monetary amounts are held as {@code long} minor units (cents) inside the service and only
+ * converted to decimal form at the API and database boundaries.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long toMinorUnits(Double amount) {
+        return toMinorUnits(BigDecimal.valueOf(amount));
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Amount must have at most two decimal places: " + amount.toPlainString());
+        }
+    }
+
+    public static double toDouble(long minorUnits) {
+        return minorUnits / 100.0;
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
@@ -1,19 +1,25 @@
 package com.bank.accounts.domain.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_movement_ledger_sequence", columnNames = {"account_id", "ledger_sequence"}))
 public class Movement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movement_seq")
+    @SequenceGenerator(name = "movement_seq", sequenceName = "movement_seq", allocationSize = 50)
     private Long movementId;
 
     @Column(nullable = false)
@@ -22,12 +28,19 @@ public class Movement {
     @Column(nullable = false)
     private String movementType;
 
-    @Column(nullable = false)
-    private Double value;
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long value;
 
-    @Column(nullable = false)
-    private Double balance;
+    @Convert(converter = MinorUnitsConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private long balance;
 
     @Column(nullable = false)
     private Long accountId;
+
+    /**
+     * Position of the movement in its account's ledger; only set in ledger balance mode.
+     */
+    private Long ledgerSequence;
 }
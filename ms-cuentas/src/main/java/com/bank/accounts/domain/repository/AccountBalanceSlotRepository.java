@@ -0,0 +1,52 @@
+package com.bank.accounts.domain.repository;
+
+import com.bank.accounts.domain.model.AccountBalanceSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, AccountBalanceSlot.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO account_balance_slot (account_id, slot, balance) VALUES (:accountId, :slot, :amount) "
+            + "ON CONFLICT (account_id, slot) DO UPDATE SET balance = account_balance_slot.balance + EXCLUDED.balance",
+            nativeQuery = true)
+    int addToSlot(Long accountId, int slot, BigDecimal amount);
+
+    /**
+     * Takes the amount from the richest slot that covers it on its own; returns 0 when none does.
+     */
+    @Modifying
+    @Query(value = "UPDATE account_balance_slot SET balance = balance - :amount "
+            + "WHERE account_id = :accountId AND balance >= :amount AND slot = ("
+            + "SELECT s.slot FROM account_balance_slot s WHERE s.account_id = :accountId AND s.balance >= :amount "
+            + "ORDER BY s.balance DESC LIMIT 1)",
+            nativeQuery = true)
+    int takeFromRichestSlot(Long accountId, BigDecimal amount);
+
+    @Modifying
+    @Query(value = "INSERT INTO account_balance_slot (account_id, slot, balance) "
+            + "SELECT :accountId, s, 0 FROM generate_series(0, :slots - 1) s "
+            + "ON CONFLICT (account_id, slot) DO NOTHING",
+            nativeQuery = true)
+    int createSlots(Long accountId, int slots);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlot s where s.accountId = :accountId order by s.slot")
+    List<AccountBalanceSlot> findAllForUpdate(Long accountId);
+
+    /**
+     * The account's base balance plus all its slots, read in one statement.
+     */
+    @Query(value = "SELECT a.initial_balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_slot s "
+            + "WHERE s.account_id = a.account_id), 0) FROM account a WHERE a.account_id = :accountId",
+            nativeQuery = true)
+    BigDecimal aggregateBalance(Long accountId);
+}
@@ -1,14 +1,40 @@
 package com.bank.accounts.domain.repository;
 
 import com.bank.accounts.domain.model.Account;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
     List<Account> findByClientId(Long clientId);
+
+    /**
+     * The next page of accounts in id order after {@code afterId}. Seeks on the primary key
+     * instead of using OFFSET, so deep pages cost the same as the first one.
+     */
+    List<Account> findByAccountIdGreaterThanOrderByAccountIdAsc(Long afterId, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountId = :accountId")
+    Optional<Account> findByIdForUpdate(Long accountId);
+
+    /**
+     * Sets the balance only if the row is still at {@code version}, bumping it; returns 0 when
+     * another writer got there first.
+     */
+    @Modifying
+    @Query("update Account a set a.initialBalance = :balance, a.version = a.version + 1 "
+            + "where a.accountId = :accountId and a.version = :version")
+    int updateBalance(Long accountId, long version, long balance);
 }
@@ -0,0 +1,66 @@
+package com.bank.accounts.domain.repository;
+
+import com.bank.accounts.domain.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    /**
+     * Current ledger position of each account: its latest snapshot (or the account's own balance
+     * when it has none) plus the signed sum of the movements recorded after it. Read in a single
+     * statement so a concurrent snapshot cannot be applied twice or skipped.
+     */
+    @Query(value = "SELECT a.account_id AS accountId, "
+            + "COALESCE(s.balance, a.initial_balance) "
+            + "+ COALESCE(SUM(CASE WHEN m.movement_type = 'Credito' THEN m.value ELSE -m.value END), 0) AS balance, "
+            + "COALESCE(MAX(m.ledger_sequence), s.ledger_sequence, 0) AS ledgerSequence "
+            + "FROM account a "
+            + "LEFT JOIN balance_snapshot s ON s.account_id = a.account_id "
+            + "LEFT JOIN movement m ON m.account_id = a.account_id "
+            + "AND m.ledger_sequence > COALESCE(s.ledger_sequence, 0) "
+            + "WHERE a.account_id IN (:accountIds) "
+            + "GROUP BY a.account_id, a.initial_balance, s.balance, s.ledger_sequence",
+            nativeQuery = true)
+    List<LedgerPosition> findLedgerPositions(Collection<Long> accountIds);
+
+    /**
+     * Folds the movements recorded since each account's last snapshot into a new snapshot.
+     * Accounts without new movements are left untouched. Each account reads only its movements
+     * past the snapshot, as a range scan on {@code (account_id, ledger_sequence)}, rather than
+     * joining the whole movement table and filtering afterwards.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO balance_snapshot (account_id, balance, ledger_sequence, taken_at) "
+            + "SELECT a.account_id, COALESCE(s.balance, a.initial_balance) + recent.delta, "
+            + "recent.last_sequence, CURRENT_TIMESTAMP "
+            + "FROM account a "
+            + "LEFT JOIN balance_snapshot s ON s.account_id = a.account_id "
+            + "JOIN LATERAL ("
+            + "SELECT SUM(CASE WHEN m.movement_type = 'Credito' THEN m.value ELSE -m.value END) AS delta, "
+            + "MAX(m.ledger_sequence) AS last_sequence "
+            + "FROM movement m "
+            + "WHERE m.account_id = a.account_id AND m.ledger_sequence > COALESCE(s.ledger_sequence, 0)"
+            + ") recent ON recent.last_sequence IS NOT NULL "
+            + "ON CONFLICT (account_id) DO UPDATE SET balance = EXCLUDED.balance, "
+            + "ledger_sequence = EXCLUDED.ledger_sequence, taken_at = EXCLUDED.taken_at",
+            nativeQuery = true)
+    int snapshotAll();
+
+    interface LedgerPosition {
+        Long getAccountId();
+
+        BigDecimal getBalance();
+
+        Long getLedgerSequence();
+    }
+}
@@ -2,8 +2,37 @@ package com.bank.accounts.domain.repository;
 
 import com.bank.accounts.domain.model.CustomerReplica;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 
 @Repository
-public interface CustomerReplicaRepository extends JpaRepository<CustomerReplica, Long> {
+public interface CustomerReplicaRepository extends JpaRepository<CustomerReplica, Long>, CustomerReplicaWriter {
+
+    /**
+     * Inserts or updates every replica in one statement. An existing replica is only updated by a
+     * newer version, or by an {@link CustomerReplica#UNVERSIONED} event, so redelivered and
+     * out-of-order events leave it alone. The arrays are read together and must not repeat a
+     * customer, since one statement cannot update the same row twice.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO customer_replica (customer_id, name, version) "
+            + "SELECT * FROM unnest(CAST(:customerIds AS bigint[]), CAST(:names AS varchar[]), "
+            + "CAST(:versions AS bigint[])) "
+            + "ON CONFLICT (customer_id) DO UPDATE SET name = EXCLUDED.name, "
+            + "version = GREATEST(customer_replica.version, EXCLUDED.version) "
+            + "WHERE EXCLUDED.version = -1 OR customer_replica.version < EXCLUDED.version",
+            nativeQuery = true)
+    int upsertAll(Long[] customerIds, String[] names, Long[] versions);
+
+    @Override
+    default int upsertAll(Collection<CustomerReplica> replicas) {
+        return upsertAll(replicas.stream().map(CustomerReplica::getCustomerId).toArray(Long[]::new),
+                replicas.stream().map(CustomerReplica::getName).toArray(String[]::new),
+                replicas.stream().map(CustomerReplica::getVersion).toArray(Long[]::new));
+    }
 }
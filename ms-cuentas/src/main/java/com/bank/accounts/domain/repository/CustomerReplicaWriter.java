@@ -0,0 +1,18 @@
+package com.bank.accounts.domain.repository;
+
+import com.bank.accounts.domain.model.CustomerReplica;
+
+import java.util.Collection;
+
+/**
+ * Write side of the customer replica used by the event listener. Implemented by the JPA repository,
+ * and by {@link ReactiveCustomerReplicaRepository} under the {@code r2dbc} profile.
+ */
+public interface CustomerReplicaWriter {
+
+    /**
+     * Inserts or updates the replicas, keeping any row that already carries a newer version.
+     * Returns the number of rows written.
+     */
+    int upsertAll(Collection<CustomerReplica> replicas);
+}
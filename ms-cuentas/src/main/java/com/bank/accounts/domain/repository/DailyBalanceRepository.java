@@ -0,0 +1,85 @@
+package com.bank.accounts.domain.repository;
+
+import com.bank.accounts.domain.model.DailyBalance;
+import com.bank.accounts.domain.model.Money;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, DailyBalance.Key> {
+
+    /**
+     * Folds each day's movements into its checkpoint with one statement; the arrays are read
+     * together and must not repeat an (account, day), since one statement cannot update the same
+     * row twice. Totals always add up; the closing balance only moves forward, so movements
+     * committed out of order cannot overwrite a later balance.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_balance "
+            + "(account_id, balance_date, closing_balance, total_debits, total_credits, last_movement_at) "
+            + "SELECT * FROM unnest(CAST(:accountIds AS bigint[]), CAST(:balanceDates AS date[]), "
+            + "CAST(:closingBalances AS numeric[]), CAST(:debits AS numeric[]), CAST(:credits AS numeric[]), "
+            + "CAST(:movementAts AS timestamp[])) "
+            + "ON CONFLICT (account_id, balance_date) DO UPDATE SET "
+            + "total_debits = daily_balance.total_debits + EXCLUDED.total_debits, "
+            + "total_credits = daily_balance.total_credits + EXCLUDED.total_credits, "
+            + "closing_balance = CASE WHEN EXCLUDED.last_movement_at >= daily_balance.last_movement_at "
+            + "THEN EXCLUDED.closing_balance ELSE daily_balance.closing_balance END, "
+            + "last_movement_at = GREATEST(daily_balance.last_movement_at, EXCLUDED.last_movement_at)",
+            nativeQuery = true)
+    int recordAll(Long[] accountIds, LocalDate[] balanceDates, BigDecimal[] closingBalances, BigDecimal[] debits,
+                  BigDecimal[] credits, LocalDateTime[] movementAts);
+
+    /**
+     * @param days one entry per (account, day) holding that day's deltas: the debit and credit
+     *             totals to add and the balance after its last movement
+     */
+    default int recordAll(Collection<DailyBalance> days) {
+        return recordAll(days.stream().map(DailyBalance::getAccountId).toArray(Long[]::new),
+                days.stream().map(DailyBalance::getBalanceDate).toArray(LocalDate[]::new),
+                days.stream().map(day -> Money.toDecimal(day.getClosingBalance())).toArray(BigDecimal[]::new),
+                days.stream().map(day -> Money.toDecimal(day.getTotalDebits())).toArray(BigDecimal[]::new),
+                days.stream().map(day -> Money.toDecimal(day.getTotalCredits())).toArray(BigDecimal[]::new),
+                days.stream().map(DailyBalance::getLastMovementAt).toArray(LocalDateTime[]::new));
+    }
+
+    /**
+     * Opening balance and debit/credit totals of each account for {@code [startDate, endDate]}.
+     * The opening balance is the closing balance of the last checkpoint before the range; without
+     * one, the balance before the first checkpoint in or after it; without any, it is null and the
+     * caller uses the account's current balance, which only the balance mode knows how to read.
+     * Each is an index lookup, whatever the history.
+     */
+    @Query(value = "SELECT a.account_id AS accountId, "
+            + "COALESCE("
+            + "(SELECT d.closing_balance FROM daily_balance d WHERE d.account_id = a.account_id "
+            + "AND d.balance_date < :startDate ORDER BY d.balance_date DESC FETCH FIRST 1 ROWS ONLY), "
+            + "(SELECT d.closing_balance - d.total_credits + d.total_debits FROM daily_balance d "
+            + "WHERE d.account_id = a.account_id AND d.balance_date >= :startDate "
+            + "ORDER BY d.balance_date FETCH FIRST 1 ROWS ONLY)) AS openingBalance, "
+            + "COALESCE((SELECT SUM(d.total_debits) FROM daily_balance d WHERE d.account_id = a.account_id "
+            + "AND d.balance_date BETWEEN :startDate AND :endDate), 0) AS totalDebits, "
+            + "COALESCE((SELECT SUM(d.total_credits) FROM daily_balance d WHERE d.account_id = a.account_id "
+            + "AND d.balance_date BETWEEN :startDate AND :endDate), 0) AS totalCredits "
+            + "FROM account a WHERE a.account_id IN (:accountIds)",
+            nativeQuery = true)
+    List<StatementBalance> findStatementBalances(Collection<Long> accountIds, LocalDate startDate, LocalDate endDate);
+
+    interface StatementBalance {
+        Long getAccountId();
+
+        BigDecimal getOpeningBalance();
+
+        BigDecimal getTotalDebits();
+
+        BigDecimal getTotalCredits();
+    }
+}
@@ -0,0 +1,9 @@
+package com.bank.accounts.domain.repository;
+
+import com.bank.accounts.domain.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
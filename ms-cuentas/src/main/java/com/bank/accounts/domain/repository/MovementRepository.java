@@ -1,13 +1,108 @@
 package com.bank.accounts.domain.repository;
 
 import com.bank.accounts.domain.model.Movement;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MovementRepository extends JpaRepository<Movement, Long> {
+    /**
+     * Bounds {@code date} on both sides, so on a month-partitioned table only the partitions
+     * overlapping the range are scanned.
+     */
     List<Movement> findByAccountIdAndDateBetween(Long accountId, LocalDateTime startDate, LocalDateTime endDate);
+
+    List<Movement> findByAccountIdInAndDateBetweenOrderByAccountIdAscDateAscMovementIdAsc(
+            Collection<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * The next page of an account's movements in {@code (date, movementId)} order, starting right
+     * after the given position. Seeks on the position instead of using OFFSET. The redundant
+     * {@code date >= afterDate} bound lets a month-partitioned table skip earlier partitions.
+     */
+    @Query("select m from Movement m where m.accountId = :accountId and m.date >= :afterDate and m.date <= :endDate "
+            + "and (m.date > :afterDate or (m.date = :afterDate and m.movementId > :afterMovementId)) "
+            + "order by m.date, m.movementId")
+    List<Movement> findPageAfter(Long accountId, LocalDateTime afterDate, Long afterMovementId,
+                                 LocalDateTime endDate, Limit limit);
+
+    /**
+     * The next page of movements of several accounts in {@code (accountId, date, movementId)}
+     * order, starting right after the given position.
+     */
+    @Query("select m from Movement m where m.accountId in :accountIds and m.date between :startDate and :endDate "
+            + "and (m.accountId > :afterAccountId or (m.accountId = :afterAccountId "
+            + "and (m.date > :afterDate or (m.date = :afterDate and m.movementId > :afterMovementId)))) "
+            + "order by m.accountId, m.date, m.movementId")
+    List<Movement> findStatementPageAfter(Collection<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate,
+                                          Long afterAccountId, LocalDateTime afterDate, Long afterMovementId,
+                                          Limit limit);
+
+    /**
+     * Per account and day: movement count, debit and credit totals and the lowest and highest
+     * balance, computed in the database. Reads only columns covered by
+     * {@code idx_movement_account_date}.
+     */
+    @Query(value = "SELECT m.account_id AS accountId, CAST(date_trunc('day', m.date) AS DATE) AS periodStart, "
+            + "COUNT(*) AS movementCount, "
+            + "COALESCE(SUM(CASE WHEN UPPER(m.movement_type) = 'DEBITO' THEN m.value END), 0) AS totalDebits, "
+            + "COALESCE(SUM(CASE WHEN UPPER(m.movement_type) = 'CREDITO' THEN m.value END), 0) AS totalCredits, "
+            + "MIN(m.balance) AS minBalance, MAX(m.balance) AS maxBalance "
+            + "FROM movement m WHERE m.account_id IN (:accountIds) AND m.date BETWEEN :startDate AND :endDate "
+            + "GROUP BY m.account_id, date_trunc('day', m.date) ORDER BY accountId, periodStart",
+            nativeQuery = true)
+    List<PeriodSummary> summarizeByDay(Collection<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * As {@link #summarizeByDay}, per ISO week starting on Monday.
+     */
+    @Query(value = "SELECT m.account_id AS accountId, CAST(date_trunc('week', m.date) AS DATE) AS periodStart, "
+            + "COUNT(*) AS movementCount, "
+            + "COALESCE(SUM(CASE WHEN UPPER(m.movement_type) = 'DEBITO' THEN m.value END), 0) AS totalDebits, "
+            + "COALESCE(SUM(CASE WHEN UPPER(m.movement_type) = 'CREDITO' THEN m.value END), 0) AS totalCredits, "
+            + "MIN(m.balance) AS minBalance, MAX(m.balance) AS maxBalance "
+            + "FROM movement m WHERE m.account_id IN (:accountIds) AND m.date BETWEEN :startDate AND :endDate "
+            + "GROUP BY m.account_id, date_trunc('week', m.date) ORDER BY accountId, periodStart",
+            nativeQuery = true)
+    List<PeriodSummary> summarizeByWeek(Collection<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * As {@link #summarizeByDay}, per calendar month.
+     */
+    @Query(value = "SELECT m.account_id AS accountId, CAST(date_trunc('month', m.date) AS DATE) AS periodStart, "
+            + "COUNT(*) AS movementCount, "
+            + "COALESCE(SUM(CASE WHEN UPPER(m.movement_type) = 'DEBITO' THEN m.value END), 0) AS totalDebits, "
+            + "COALESCE(SUM(CASE WHEN UPPER(m.movement_type) = 'CREDITO' THEN m.value END), 0) AS totalCredits, "
+            + "MIN(m.balance) AS minBalance, MAX(m.balance) AS maxBalance "
+            + "FROM movement m WHERE m.account_id IN (:accountIds) AND m.date BETWEEN :startDate AND :endDate "
+            + "GROUP BY m.account_id, date_trunc('month', m.date) ORDER BY accountId, periodStart",
+            nativeQuery = true)
+    List<PeriodSummary> summarizeByMonth(Collection<Long> accountIds, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Amounts and balances as stored, in major units.
+     */
+    interface PeriodSummary {
+        Long getAccountId();
+
+        LocalDate getPeriodStart();
+
+        Long getMovementCount();
+
+        BigDecimal getTotalDebits();
+
+        BigDecimal getTotalCredits();
+
+        BigDecimal getMinBalance();
+
+        BigDecimal getMaxBalance();
+    }
 }
@@ -0,0 +1,56 @@
+package com.bank.accounts.domain.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out ids from a database sequence shared with a JPA entity. The allocation size must match
+ * the entity's {@code @SequenceGenerator}: each nextval reserves the block (value - 49, value],
+ * the same range Hibernate's pooled optimizer uses, so reactive and JPA inserts never collide.
+ */
+final class PooledSequence {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final DatabaseClient databaseClient;
+    private final String nextvalSql;
+    private final AtomicReference<IdBlock> idBlock = new AtomicReference<>(new IdBlock(1, 0));
+
+    PooledSequence(DatabaseClient databaseClient, String sequenceName) {
+        this.databaseClient = databaseClient;
+        this.nextvalSql = "SELECT nextval('" + sequenceName + "')";
+    }
+
+    Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            IdBlock current = idBlock.get();
+            long id = current.next.getAndIncrement();
+            if (id <= current.hi) {
+                return Mono.just(id);
+            }
+            return databaseClient.sql(nextvalSql)
+                    .map((row, metadata) -> row.get(0, Long.class))
+                    .one()
+                    .map(hi -> {
+                        IdBlock fresh = new IdBlock(Math.max(1, hi - ALLOCATION_SIZE + 1), hi);
+                        long first = fresh.next.getAndIncrement();
+                        idBlock.compareAndSet(current, fresh);
+                        return first;
+                    });
+        });
+    }
+
+    private static final class IdBlock {
+
+        private final AtomicLong next;
+        private final long hi;
+
+        private IdBlock(long next, long hi) {
+            this.next = new AtomicLong(next);
+            this.hi = hi;
+        }
+    }
+}
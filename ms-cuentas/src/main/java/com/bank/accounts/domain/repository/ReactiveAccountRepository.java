@@ -0,0 +1,131 @@
+package com.bank.accounts.domain.repository;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.Money;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Repository
+@Profile("r2dbc")
+public class ReactiveAccountRepository {
+
+    private static final String COLUMNS =
+            "account_id, account_number, account_type, initial_balance, status, client_id, version";
+
+    private final DatabaseClient databaseClient;
+    private final PooledSequence accountIds;
+
+    public ReactiveAccountRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        this.accountIds = new PooledSequence(databaseClient, "account_seq");
+    }
+
+    public Mono<Account> findById(Long accountId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM account WHERE account_id = :accountId")
+                .bind("accountId", accountId)
+                .map(ReactiveAccountRepository::toAccount)
+                .one();
+    }
+
+    /**
+     * Keyset page of accounts, the same page as
+     * {@link AccountRepository#findByAccountIdGreaterThanOrderByAccountIdAsc}.
+     */
+    public Flux<Account> findPageAfter(Long afterId, int limit) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM account WHERE account_id > :afterId "
+                        + "ORDER BY account_id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveAccountRepository::toAccount)
+                .all();
+    }
+
+    public Mono<Account> insert(Account account) {
+        return accountIds.nextId().flatMap(id -> databaseClient.sql("INSERT INTO account (" + COLUMNS + ") "
+                        + "VALUES (:accountId, :accountNumber, :accountType, :initialBalance, :status, :clientId, 0) "
+                        + "RETURNING " + COLUMNS)
+                .bind("accountId", id)
+                .bind("accountNumber", account.getAccountNumber())
+                .bind("accountType", account.getAccountType())
+                .bind("initialBalance", Money.toDecimal(account.getInitialBalance()))
+                .bind("status", account.isStatus())
+                .bind("clientId", account.getClientId())
+                .map(ReactiveAccountRepository::toAccount)
+                .one());
+    }
+
+    /**
+     * Writes the account if its row still carries the version it was read with, like a JPA merge
+     * of a {@code @Version} entity. Completes empty when the row changed or no longer exists.
+     */
+    public Mono<Account> update(Account account) {
+        return databaseClient.sql("UPDATE account SET account_number = :accountNumber, account_type = :accountType, "
+                        + "initial_balance = :initialBalance, status = :status, client_id = :clientId, "
+                        + "version = version + 1 WHERE account_id = :accountId AND version = :version "
+                        + "RETURNING " + COLUMNS)
+                .bind("accountNumber", account.getAccountNumber())
+                .bind("accountType", account.getAccountType())
+                .bind("initialBalance", Money.toDecimal(account.getInitialBalance()))
+                .bind("status", account.isStatus())
+                .bind("clientId", account.getClientId())
+                .bind("accountId", account.getAccountId())
+                .bind("version", account.getVersion())
+                .map(ReactiveAccountRepository::toAccount)
+                .one();
+    }
+
+    public Mono<Long> deleteById(Long accountId) {
+        return databaseClient.sql("DELETE FROM account WHERE account_id = :accountId")
+                .bind("accountId", accountId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Adds {@code delta} to the balance in a single conditional statement, so concurrent movements
+     * on the same row never lose updates. Completes empty when the account does not exist or the
+     * balance would become negative.
+     */
+    public Mono<BalanceChange> applyDelta(String accountNumber, long delta) {
+        return databaseClient.sql("UPDATE account SET initial_balance = initial_balance + :delta, version = version + 1 "
+                        + "WHERE account_number = :accountNumber AND initial_balance + :delta >= 0 "
+                        + "RETURNING account_id, client_id, initial_balance")
+                .bind("delta", Money.toDecimal(delta))
+                .bind("accountNumber", accountNumber)
+                .map((row, metadata) -> new BalanceChange(
+                        row.get("account_id", Long.class),
+                        row.get("client_id", Long.class),
+                        Money.toMinorUnits(row.get("initial_balance", BigDecimal.class))))
+                .one();
+    }
+
+    public Mono<Boolean> existsByAccountNumber(String accountNumber) {
+        return databaseClient.sql("SELECT 1 FROM account WHERE account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .map((row, metadata) -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    private static Account toAccount(Row row, RowMetadata metadata) {
+        Account account = new Account();
+        account.setAccountId(row.get("account_id", Long.class));
+        account.setAccountNumber(row.get("account_number", String.class));
+        account.setAccountType(row.get("account_type", String.class));
+        account.setInitialBalance(Money.toMinorUnits(row.get("initial_balance", BigDecimal.class)));
+        account.setStatus(Boolean.TRUE.equals(row.get("status", Boolean.class)));
+        account.setClientId(row.get("client_id", Long.class));
+        account.setVersion(row.get("version", Long.class));
+        return account;
+    }
+
+    public record BalanceChange(long accountId, long clientId, long balance) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.accounts.domain.repository;
+
+import com.bank.accounts.domain.model.CustomerReplica;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+@Primary
+@Profile("r2dbc")
+@RequiredArgsConstructor
+public class ReactiveCustomerReplicaRepository implements CustomerReplicaWriter {
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Same upsert as {@link CustomerReplicaRepository#upsertAll(Long[], String[], Long[])}, over the
+     * reactive connection pool.
+     */
+    public Mono<Long> upsert(Collection<CustomerReplica> replicas) {
+        return databaseClient.sql("INSERT INTO customer_replica (customer_id, name, version) "
+                        + "SELECT * FROM unnest(CAST(:customerIds AS bigint[]), CAST(:names AS varchar[]), "
+                        + "CAST(:versions AS bigint[])) "
+                        + "ON CONFLICT (customer_id) DO UPDATE SET name = EXCLUDED.name, "
+                        + "version = GREATEST(customer_replica.version, EXCLUDED.version) "
+                        + "WHERE EXCLUDED.version = -1 OR customer_replica.version < EXCLUDED.version")
+                .bind("customerIds", replicas.stream().map(CustomerReplica::getCustomerId).toArray(Long[]::new))
+                .bind("names", replicas.stream().map(CustomerReplica::getName).toArray(String[]::new))
+                .bind("versions", replicas.stream().map(CustomerReplica::getVersion).toArray(Long[]::new))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Blocks on {@link #upsert(Collection)}; the AMQP listener thread calling it is a blocking
+     * consumer thread, never an event loop.
+     */
+    @Override
+    public int upsertAll(Collection<CustomerReplica> replicas) {
+        Long written = upsert(replicas).block();
+        return written != null ? written.intValue() : 0;
+    }
+}
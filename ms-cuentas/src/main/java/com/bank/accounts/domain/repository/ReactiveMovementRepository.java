@@ -0,0 +1,68 @@
+package com.bank.accounts.domain.repository;
+
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.domain.model.Movement;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Repository
+@Profile("r2dbc")
+public class ReactiveMovementRepository {
+
+    private final DatabaseClient databaseClient;
+    private final PooledSequence movementIds;
+
+    public ReactiveMovementRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        this.movementIds = new PooledSequence(databaseClient, "movement_seq");
+    }
+
+    public Mono<Movement> insert(Movement movement) {
+        return movementIds.nextId().flatMap(id -> databaseClient.sql("INSERT INTO movement "
+                                + "(movement_id, date, movement_type, value, balance, account_id) "
+                                + "VALUES (:movementId, :date, :movementType, :value, :balance, :accountId)")
+                        .bind("movementId", id)
+                        .bind("date", movement.getDate())
+                        .bind("movementType", movement.getMovementType())
+                        .bind("value", Money.toDecimal(movement.getValue()))
+                        .bind("balance", Money.toDecimal(movement.getBalance()))
+                        .bind("accountId", movement.getAccountId())
+                        .fetch()
+                        .rowsUpdated()
+                        .then(recordDailyBalance(movement))
+                        .then(Mono.fromSupplier(() -> {
+                            movement.setMovementId(id);
+                            return movement;
+                        })));
+    }
+
+    /**
+     * Same upsert as {@link DailyBalanceRepository#recordAll(java.util.Collection)} for a single
+     * movement, run in the caller's transaction.
+     */
+    private Mono<Long> recordDailyBalance(Movement movement) {
+        boolean debit = "Debito".equalsIgnoreCase(movement.getMovementType());
+        BigDecimal value = Money.toDecimal(movement.getValue());
+        return databaseClient.sql("INSERT INTO daily_balance "
+                        + "(account_id, balance_date, closing_balance, total_debits, total_credits, last_movement_at) "
+                        + "VALUES (:accountId, :balanceDate, :closingBalance, :debit, :credit, :movementAt) "
+                        + "ON CONFLICT (account_id, balance_date) DO UPDATE SET "
+                        + "total_debits = daily_balance.total_debits + EXCLUDED.total_debits, "
+                        + "total_credits = daily_balance.total_credits + EXCLUDED.total_credits, "
+                        + "closing_balance = CASE WHEN EXCLUDED.last_movement_at >= daily_balance.last_movement_at "
+                        + "THEN EXCLUDED.closing_balance ELSE daily_balance.closing_balance END, "
+                        + "last_movement_at = GREATEST(daily_balance.last_movement_at, EXCLUDED.last_movement_at)")
+                .bind("accountId", movement.getAccountId())
+                .bind("balanceDate", movement.getDate().toLocalDate())
+                .bind("closingBalance", Money.toDecimal(movement.getBalance()))
+                .bind("debit", debit ? value : BigDecimal.ZERO)
+                .bind("credit", debit ? BigDecimal.ZERO : value)
+                .bind("movementAt", movement.getDate())
+                .fetch()
+                .rowsUpdated();
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Current balance of accounts for the read paths, whatever the balance mode. In {@code ledger}
+ * mode the account row is never updated, so the balance is derived by {@link AccountLedger};
+ * otherwise it is the account row, aggregated across its slots when the account is sharded.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountBalances {
+
+    private final AccountLedger accountLedger;
+    private final ShardedBalances shardedBalances;
+
+    @Value("${accounts.balance.mode:account}")
+    private final String balanceMode;
+
+    public long balanceOf(Account account) {
+        return balancesOf(List.of(account)).get(account.getAccountId());
+    }
+
+    /**
+     * Balances keyed by account id, read with one query in ledger mode.
+     */
+    public Map<Long, Long> balancesOf(Collection<Account> accounts) {
+        if (!"ledger".equalsIgnoreCase(balanceMode)) {
+            return accounts.stream().collect(Collectors.toMap(Account::getAccountId, shardedBalances::balanceOf));
+        }
+        Map<Long, AccountLedger.Position> positions =
+                accountLedger.positionsOf(accounts.stream().map(Account::getAccountId).toList());
+        // An account deleted since it was read has no position; its last known balance stands.
+        return accounts.stream().collect(Collectors.toMap(Account::getAccountId, account -> {
+            AccountLedger.Position position = positions.get(account.getAccountId());
+            return position != null ? position.balance() : account.getInitialBalance();
+        }));
+    }
+}
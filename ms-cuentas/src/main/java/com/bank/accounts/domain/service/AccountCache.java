@@ -0,0 +1,138 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Size-bounded (W-TinyLFU) cache of committed account state, indexed by account id and account
+ * number. Entries are copies, so callers can never mutate cached state by accident. Hit, miss and
+ * eviction counts are published as {@code cache.*} metrics tagged {@code cache=accounts}.
+ */
+@Component
+public class AccountCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<Long, Account> accountsById;
+    private final Cache<String, Long> idsByNumber;
+
+    @Autowired
+    public AccountCache(AccountRepository accountRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${accounts.cache.max-size:100000}") long maxSize,
+                        @Value("${accounts.cache.ttl:PT10M}") Duration ttl) {
+        this(accountRepository, maxSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, accountsById, "accounts");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByNumber, "account-numbers");
+    }
+
+    public AccountCache(AccountRepository accountRepository, long maxSize, Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.accountsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByNumber = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the account with the given id, loading and caching it on a miss.
+     */
+    public Optional<Account> getById(Long accountId) {
+        Account cached = accountsById.get(accountId, id -> accountRepository.findById(id)
+                .map(AccountCache::copyOf)
+                .orElse(null));
+        if (cached != null) {
+            idsByNumber.put(cached.getAccountNumber(), cached.getAccountId());
+        }
+        return Optional.ofNullable(cached).map(AccountCache::copyOf);
+    }
+
+    /**
+     * Returns the cached account with the given number without touching the database.
+     */
+    public Optional<Account> getIfPresent(String accountNumber) {
+        Long accountId = idsByNumber.getIfPresent(accountNumber);
+        if (accountId == null) {
+            return Optional.empty();
+        }
+        Account cached = accountsById.getIfPresent(accountId);
+        if (cached == null || !cached.getAccountNumber().equals(accountNumber)) {
+            // The account was evicted or renumbered since the index entry was written.
+            idsByNumber.invalidate(accountNumber);
+            return Optional.empty();
+        }
+        return Optional.of(copyOf(cached));
+    }
+
+    public void put(Account account) {
+        Account copy = copyOf(account);
+        Account previous = accountsById.asMap().put(copy.getAccountId(), copy);
+        if (previous != null && !previous.getAccountNumber().equals(copy.getAccountNumber())) {
+            idsByNumber.invalidate(previous.getAccountNumber());
+        }
+        idsByNumber.put(copy.getAccountNumber(), copy.getAccountId());
+    }
+
+    /**
+     * Writes the account through once the surrounding transaction commits, so a rollback never
+     * leaves uncommitted state in the cache. Without an active transaction it is written at once.
+     * The account's state is copied at commit time, so later changes in the same transaction count.
+     */
+    public void putAfterCommit(Account account) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(account);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(account);
+            }
+        });
+    }
+
+    public void evict(Long accountId) {
+        Account previous = accountsById.asMap().remove(accountId);
+        if (previous != null) {
+            idsByNumber.invalidate(previous.getAccountNumber());
+        }
+    }
+
+    public CacheStats stats() {
+        return accountsById.stats();
+    }
+
+    public long size() {
+        return accountsById.estimatedSize();
+    }
+
+    private static Account copyOf(Account account) {
+        Account copy = new Account();
+        copy.setAccountId(account.getAccountId());
+        copy.setAccountNumber(account.getAccountNumber());
+        copy.setAccountType(account.getAccountType());
+        copy.setInitialBalance(account.getInitialBalance());
+        copy.setStatus(account.isStatus());
+        copy.setClientId(account.getClientId());
+        copy.setVersion(account.getVersion());
+        return copy;
+    }
+}
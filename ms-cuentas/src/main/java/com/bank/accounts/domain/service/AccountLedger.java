@@ -0,0 +1,51 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.domain.repository.BalanceSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Derives balances in ledger mode, where movements are the source of truth: the latest
+ * {@link com.bank.accounts.domain.model.BalanceSnapshot} plus the movements recorded after it.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountLedger {
+
+    private final BalanceSnapshotRepository snapshotRepository;
+
+    public Position positionOf(Long accountId) {
+        Position position = positionsOf(List.of(accountId)).get(accountId);
+        if (position == null) {
+            throw new RuntimeException("Account not found");
+        }
+        return position;
+    }
+
+    public Map<Long, Position> positionsOf(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return Map.of();
+        }
+        return snapshotRepository.findLedgerPositions(accountIds).stream()
+                .collect(Collectors.toMap(
+                        BalanceSnapshotRepository.LedgerPosition::getAccountId,
+                        position -> new Position(Money.toMinorUnits(position.getBalance()), position.getLedgerSequence())));
+    }
+
+    /**
+     * Balance of an account after the movement at {@code sequence}; the next movement is
+     * recorded at {@code sequence + 1}.
+     */
+    public record Position(long balance, long sequence) {
+
+        public Position append(long newBalance) {
+            return new Position(newBalance, sequence + 1);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.bank.accounts.domain.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes work per account number on a fixed set of lock stripes, so different accounts
+ * proceed in parallel while memory stays constant regardless of how many accounts exist.
+ */
+@Component
+public class AccountLockStripes {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountLockStripes(@Value("${accounts.locks.stripes:1024}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Lock stripes must be greater than zero");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        if (size <= 0) {
+            size = 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public <T> T withLock(String accountNumber, Supplier<T> action) {
+        ReentrantLock lock = stripes[indexOf(accountNumber)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks every stripe covering the given accounts in ascending stripe order, so callers
+     * locking overlapping sets of accounts cannot deadlock each other.
+     */
+    public <T> T withLocks(Collection<String> accountNumbers, Supplier<T> action) {
+        int[] indexes = accountNumbers.stream()
+                .mapToInt(this::indexOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                acquired++;
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    int indexOf(String accountNumber) {
+        int h = Objects.hashCode(accountNumber);
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
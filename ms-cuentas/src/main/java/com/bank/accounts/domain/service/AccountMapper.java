@@ -0,0 +1,37 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.model.dto.AccountRequest;
+import com.bank.accounts.model.dto.AccountResponse;
+
+final class AccountMapper {
+
+    private AccountMapper() {
+    }
+
+    static AccountResponse toResponse(Account account, long balance) {
+        AccountResponse response = new AccountResponse();
+        response.setAccountId(account.getAccountId());
+        response.setAccountNumber(account.getAccountNumber());
+        response.setAccountType(AccountResponse.AccountTypeEnum.fromValue(account.getAccountType()));
+        response.setInitialBalance(Money.toDouble(balance));
+        response.setStatus(account.isStatus());
+        response.setClientId(account.getClientId());
+        return response;
+    }
+
+    static Account toEntity(AccountRequest request) {
+        Account account = new Account();
+        updateFromRequest(account, request);
+        return account;
+    }
+
+    static void updateFromRequest(Account account, AccountRequest request) {
+        account.setAccountNumber(request.getAccountNumber());
+        account.setAccountType(request.getAccountType().getValue());
+        account.setInitialBalance(Money.toMinorUnits(request.getInitialBalance()));
+        account.setStatus(request.getStatus());
+        account.setClientId(request.getClientId());
+    }
+}
@@ -7,6 +7,7 @@ import reactor.core.publisher.Mono;
 
 public interface AccountService {
     Flux<AccountResponse> getAllAccounts();
+    Flux<AccountResponse> getAccounts(Long afterId, Integer limit);
     Mono<AccountResponse> getAccountById(Long id);
     Mono<AccountResponse> createAccount(AccountRequest accountRequest);
     Mono<AccountResponse> updateAccount(Long id, AccountRequest accountRequest);
@@ -5,44 +5,76 @@ import com.bank.accounts.domain.repository.AccountRepository;
 import com.bank.accounts.model.dto.AccountRequest;
 import com.bank.accounts.model.dto.AccountResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
+@Profile("!r2dbc")
 @RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final AccountBalances accountBalances;
+    private final ReportCache reportCache;
+    private final Scheduler blockingScheduler;
+
+    @Value("${accounts.pagination.max-limit:1000}")
+    private final int maxPageSize;
 
+    /**
+     * Streams every account, reading them one keyset page at a time rather than loading the whole
+     * table at once.
+     */
     @Override
     @Transactional(readOnly = true)
     public Flux<AccountResponse> getAllAccounts() {
-        return Mono.fromCallable(accountRepository::findAll)
-                .flatMapMany(Flux::fromIterable)
-                .map(this::convertToResponse)
-                .subscribeOn(Schedulers.boundedElastic());
+        return accountPage(Long.MIN_VALUE, maxPageSize)
+                .expand(page -> page.size() < maxPageSize
+                        ? Mono.empty()
+                        : accountPage(page.get(page.size() - 1).getAccountId(), maxPageSize))
+                // Ask for one page at a time; the default prefetch would read up to 256 pages ahead
+                // of a slow subscriber.
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<AccountResponse> getAccounts(Long afterId, Integer limit) {
+        return Mono.fromCallable(() -> PageLimits.resolve(limit, maxPageSize))
+                .flatMap(size -> accountPage(afterId != null ? afterId : Long.MIN_VALUE, size))
+                .flatMapMany(Flux::fromIterable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Mono<AccountResponse> getAccountById(Long id) {
-        return Mono.fromCallable(() -> accountRepository.findById(id)
+        return Mono.fromCallable(() -> accountCache.getById(id)
                         .map(this::convertToResponse)
                         .orElseThrow(() -> new RuntimeException("Account not found with id: " + id)))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(blockingScheduler);
     }
 
     @Override
     @Transactional
     public Mono<AccountResponse> createAccount(AccountRequest accountRequest) {
         return Mono.fromCallable(() -> {
-                    Account account = convertToEntity(accountRequest);
-                    return convertToResponse(accountRepository.save(account));
+                    Account account = accountRepository.save(AccountMapper.toEntity(accountRequest));
+                    accountCache.putAfterCommit(account);
+                    reportCache.invalidateAfterCommit(account.getClientId());
+                    return convertToResponse(account);
                 })
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(blockingScheduler);
     }
 
     @Override
@@ -50,49 +82,47 @@ public class AccountServiceImpl implements AccountService {
     public Mono<AccountResponse> updateAccount(Long id, AccountRequest accountRequest) {
         return Mono.fromCallable(() -> accountRepository.findById(id)
                         .map(existingAccount -> {
-                            updateAccountFromRequest(existingAccount, accountRequest);
-                            return convertToResponse(accountRepository.save(existingAccount));
+                            Long previousClientId = existingAccount.getClientId();
+                            AccountMapper.updateFromRequest(existingAccount, accountRequest);
+                            Account account = accountRepository.save(existingAccount);
+                            accountCache.putAfterCommit(account);
+                            reportCache.invalidateAfterCommit(previousClientId);
+                            if (!previousClientId.equals(account.getClientId())) {
+                                reportCache.invalidateAfterCommit(account.getClientId());
+                            }
+                            return convertToResponse(account);
                         })
                         .orElseThrow(() -> new RuntimeException("Account not found with id: " + id)))
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(blockingScheduler);
     }
 
     @Override
     @Transactional
     public Mono<Void> deleteAccount(Long id) {
         return Mono.fromRunnable(() -> {
-                    if (accountRepository.existsById(id)) {
-                        accountRepository.deleteById(id);
-                    } else {
-                        throw new RuntimeException("Account not found with id: " + id);
-                    }
+                    Account account = accountRepository.findById(id)
+                            .orElseThrow(() -> new RuntimeException("Account not found with id: " + id));
+                    accountRepository.deleteById(id);
+                    accountCache.evict(id);
+                    reportCache.invalidateAfterCommit(account.getClientId());
                 })
-                .subscribeOn(Schedulers.boundedElastic())
+                .subscribeOn(blockingScheduler)
                 .then();
     }
 
-    private AccountResponse convertToResponse(Account account) {
-        AccountResponse response = new AccountResponse();
-        response.setAccountId(account.getAccountId());
-        response.setAccountNumber(account.getAccountNumber());
-        response.setAccountType(AccountResponse.AccountTypeEnum.fromValue(account.getAccountType()));
-        response.setInitialBalance(account.getInitialBalance());
-        response.setStatus(account.isStatus());
-        response.setClientId(account.getClientId());
-        return response;
-    }
-
-    private Account convertToEntity(AccountRequest request) {
-        Account account = new Account();
-        updateAccountFromRequest(account, request);
-        return account;
+    private Mono<List<AccountResponse>> accountPage(Long afterId, int size) {
+        return Mono.fromCallable(() -> {
+                    List<Account> accounts = accountRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(afterId, Limit.of(size));
+                    // One balance query per page, not per account, in ledger mode.
+                    Map<Long, Long> balances = accountBalances.balancesOf(accounts);
+                    return accounts.stream()
+                            .map(account -> AccountMapper.toResponse(account, balances.get(account.getAccountId())))
+                            .toList();
+                })
+                .subscribeOn(blockingScheduler);
     }
 
-    private void updateAccountFromRequest(Account account, AccountRequest request) {
-        account.setAccountNumber(request.getAccountNumber());
-        account.setAccountType(request.getAccountType().getValue());
-        account.setInitialBalance(request.getInitialBalance());
-        account.setStatus(request.getStatus());
-        account.setClientId(request.getClientId());
+    private AccountResponse convertToResponse(Account account) {
+        return AccountMapper.toResponse(account, accountBalances.balanceOf(account));
     }
 }
@@ -0,0 +1,27 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.repository.BalanceSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically checkpoints ledger balances, so deriving an account's balance only has to read the
+ * movements recorded since the previous run.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "accounts.balance.mode", havingValue = "ledger")
+public class BalanceSnapshotter {
+
+    private final BalanceSnapshotRepository repository;
+
+    @Scheduled(fixedDelayString = "${accounts.balance.snapshot-interval:PT1M}")
+    public void snapshot() {
+        int updated = repository.snapshotAll();
+        if (updated > 0) {
+            System.out.println("Refreshed balance snapshots: " + updated);
+        }
+    }
+}
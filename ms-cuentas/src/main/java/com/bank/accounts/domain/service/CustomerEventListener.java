@@ -1,21 +1,71 @@
 package com.bank.accounts.domain.service;
 
 import com.bank.accounts.domain.model.CustomerReplica;
-import com.bank.accounts.domain.repository.CustomerReplicaRepository;
+import com.bank.accounts.domain.repository.CustomerReplicaWriter;
 import com.bank.accounts.model.dto.CustomerResponse;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the customer replica in step with ms-clientes. Events arrive in batches of up to
+ * {@code accounts.customer-events.batch-size} per consumer (see {@code RabbitMQConfig}) and each
+ * batch is written with a single upsert.
+ *
+ * <p>Events carry the customer's version. The versions already written are remembered in a
+ * size-bounded map, so redelivered and out-of-order events are dropped without a database round
+ * trip; the upsert applies the same rule for customers the map has evicted or never seen.
+ */
 @Service
-@RequiredArgsConstructor
 public class CustomerEventListener {
 
-    private final CustomerReplicaRepository repository;
+    private final CustomerReplicaWriter repository;
+    private final ReportCache reportCache;
+    private final Cache<Long, Long> lastSeenVersions;
+
+    public CustomerEventListener(CustomerReplicaWriter repository, ReportCache reportCache,
+                                 @Value("${accounts.customer-events.version-cache-size:100000}") long versionCacheSize) {
+        this.repository = repository;
+        this.reportCache = reportCache;
+        this.lastSeenVersions = Caffeine.newBuilder()
+                .maximumSize(versionCacheSize)
+                .build();
+    }
+
+    @RabbitListener(queues = "customer.events.queue", containerFactory = "customerEventsContainerFactory")
+    public void handleCustomerEvents(List<CustomerResponse> customers) {
+        System.out.println("Received customer events: " + customers.size());
+        // Only the newest event per customer is written; a customer may appear only once in the upsert.
+        Map<Long, CustomerReplica> replicas = new LinkedHashMap<>();
+        for (CustomerResponse customer : customers) {
+            long version = customer.getVersion() != null ? customer.getVersion() : CustomerReplica.UNVERSIONED;
+            if (version != CustomerReplica.UNVERSIONED && version <= lastSeenVersion(customer.getCustomerId())) {
+                continue;
+            }
+            replicas.merge(customer.getCustomerId(),
+                    new CustomerReplica(customer.getCustomerId(), customer.getName(), version),
+                    (current, next) -> next.getVersion() == CustomerReplica.UNVERSIONED
+                            || next.getVersion() > current.getVersion() ? next : current);
+        }
+        if (replicas.isEmpty()) {
+            return;
+        }
+        repository.upsertAll(replicas.values());
+        replicas.values().forEach(replica -> {
+            lastSeenVersions.asMap().merge(replica.getCustomerId(), replica.getVersion(), Long::max);
+            // Cached statements carry the customer's name.
+            reportCache.invalidate(replica.getCustomerId());
+        });
+    }
 
-    @RabbitListener(queues = "customer.events.queue")
-    public void handleCustomerEvent(CustomerResponse customer) {
-        System.out.println("Received customer event: " + customer.getCustomerId());
-        repository.save(new CustomerReplica(customer.getCustomerId(), customer.getName()));
+    private long lastSeenVersion(Long customerId) {
+        Long version = lastSeenVersions.getIfPresent(customerId);
+        return version != null ? version : CustomerReplica.UNVERSIONED;
     }
 }
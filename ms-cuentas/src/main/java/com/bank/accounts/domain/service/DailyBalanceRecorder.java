@@ -0,0 +1,85 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.DailyBalance;
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.DailyBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the movements of a transaction into their daily checkpoints. The movements are grouped by
+ * account and day and written with a single upsert just before the transaction commits, once the
+ * movement inserts have gone out as JDBC batches; a per-movement native upsert would flush the
+ * session after every insert and break the batching.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyBalanceRecorder {
+
+    private final DailyBalanceRepository dailyBalanceRepository;
+
+    public void record(Movement movement) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dailyBalanceRepository.recordAll(List.of(dayOf(movement)));
+            return;
+        }
+        pendingDays().merge(new DailyBalance.Key(movement.getAccountId(), movement.getDate().toLocalDate()),
+                dayOf(movement), DailyBalanceRecorder::fold);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<DailyBalance.Key, DailyBalance> pendingDays() {
+        Map<DailyBalance.Key, DailyBalance> pending =
+                (Map<DailyBalance.Key, DailyBalance>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<DailyBalance.Key, DailyBalance> days = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, days);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!days.isEmpty()) {
+                    dailyBalanceRepository.recordAll(days.values());
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DailyBalanceRecorder.this);
+            }
+        });
+        return days;
+    }
+
+    private static DailyBalance dayOf(Movement movement) {
+        boolean debit = "Debito".equalsIgnoreCase(movement.getMovementType());
+        DailyBalance day = new DailyBalance();
+        day.setAccountId(movement.getAccountId());
+        day.setBalanceDate(movement.getDate().toLocalDate());
+        day.setClosingBalance(movement.getBalance());
+        day.setTotalDebits(debit ? movement.getValue() : 0);
+        day.setTotalCredits(debit ? 0 : movement.getValue());
+        day.setLastMovementAt(movement.getDate());
+        return day;
+    }
+
+    /**
+     * Same rule as the upsert: totals add up and the later movement sets the closing balance.
+     */
+    private static DailyBalance fold(DailyBalance current, DailyBalance next) {
+        current.setTotalDebits(Math.addExact(current.getTotalDebits(), next.getTotalDebits()));
+        current.setTotalCredits(Math.addExact(current.getTotalCredits(), next.getTotalCredits()));
+        if (!next.getLastMovementAt().isBefore(current.getLastMovementAt())) {
+            current.setClosingBalance(next.getClosingBalance());
+            current.setLastMovementAt(next.getLastMovementAt());
+        }
+        return current;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "accounts.idempotency.persistent", havingValue = "true")
+public class IdempotencyRecordCleanup {
+
+    private final IdempotencyRecordRepository repository;
+
+    @Value("${accounts.idempotency.ttl:PT24H}")
+    private final Duration ttl;
+
+    @Scheduled(fixedDelayString = "${accounts.idempotency.cleanup-interval:PT10M}")
+    public void purgeExpired() {
+        int removed = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (removed > 0) {
+            System.out.println("Purged expired idempotency records: " + removed);
+        }
+    }
+}
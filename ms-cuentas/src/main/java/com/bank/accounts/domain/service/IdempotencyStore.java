@@ -0,0 +1,174 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.model.dto.MovementRequest;
+import com.bank.accounts.model.dto.MovementResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-expiring record of movement responses by idempotency key. Lookups are plain
+ * {@link ConcurrentHashMap} reads; completed responses are kept in a compact primitive form so
+ * that a million keys stay within a predictable footprint (roughly 200 bytes per key).
+ *
+ * <p>Each key is bound to the {@link #requestHash(MovementRequest) hash} of the request that first
+ * used it; the same key with a different request is rejected instead of replayed.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final ConcurrentLinkedQueue<Entry> expiryQueue = new ConcurrentLinkedQueue<>();
+    private final int maxKeys;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    @Autowired
+    public IdempotencyStore(@Value("${accounts.idempotency.max-keys:1000000}") int maxKeys,
+                            @Value("${accounts.idempotency.ttl:PT24H}") Duration ttl) {
+        this(maxKeys, ttl, Clock.systemUTC());
+    }
+
+    public IdempotencyStore(int maxKeys, Duration ttl, Clock clock) {
+        this.entries = new ConcurrentHashMap<>(Math.min(maxKeys, 1 << 20));
+        this.maxKeys = maxKeys;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Fingerprint of the account, type and amount of a movement request.
+     */
+    public static long requestHash(MovementRequest request) {
+        String canonical = request.getAccountNumber()
+                + '|' + (request.getMovementType() != null ? request.getMovementType().getValue() : null)
+                + '|' + request.getValue();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the response recorded for the key, or runs the action and records its result.
+     * Concurrent callers with the same key share a single execution; failures are not recorded
+     * so the client can retry. A key recorded for a different {@code requestHash} fails.
+     */
+    public Mono<MovementResponse> execute(String key, long requestHash, Supplier<Mono<MovementResponse>> action) {
+        return Mono.defer(() -> {
+            long now = clock.millis();
+            Entry existing = entries.get(key);
+            if (existing != null && !existing.isExpired(now)) {
+                return existing.replay(requestHash);
+            }
+
+            Entry created = new Entry(key, requestHash, now + ttlMillis);
+            created.pending = action.get()
+                    .doOnNext(created::complete)
+                    .doOnError(e -> entries.remove(key, created))
+                    .cache();
+            Entry owner = entries.compute(key, (k, current) ->
+                    current != null && !current.isExpired(now) ? current : created);
+            if (owner != created) {
+                return owner.replay(requestHash);
+            }
+
+            expiryQueue.offer(created);
+            evict(now);
+            return created.pending;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        Entry head;
+        while ((head = expiryQueue.peek()) != null && (head.isExpired(now) || entries.size() > maxKeys)) {
+            Entry evicted = expiryQueue.poll();
+            if (evicted != null) {
+                entries.remove(evicted.key, evicted);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final long requestHash;
+        private final long expiresAt;
+        private volatile Mono<MovementResponse> pending;
+        private volatile StoredResponse completed;
+
+        private Entry(String key, long requestHash, long expiresAt) {
+            this.key = key;
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+
+        private void complete(MovementResponse response) {
+            completed = StoredResponse.of(response);
+            pending = null;
+        }
+
+        private Mono<MovementResponse> replay(long requestHash) {
+            if (requestHash != this.requestHash) {
+                return Mono.error(new RuntimeException("Idempotency key was already used with a different request"));
+            }
+            StoredResponse stored = completed;
+            if (stored != null) {
+                return Mono.fromSupplier(stored::toResponse);
+            }
+            Mono<MovementResponse> inFlight = pending;
+            if (inFlight != null) {
+                return inFlight;
+            }
+            return Mono.fromSupplier(() -> completed.toResponse());
+        }
+    }
+
+    private record StoredResponse(Long movementId, long epochMillis, int offsetSeconds,
+                                  String movementType, double value, double balance) {
+
+        private static StoredResponse of(MovementResponse response) {
+            return new StoredResponse(
+                    response.getMovementId(),
+                    response.getDate().toInstant().toEpochMilli(),
+                    response.getDate().getOffset().getTotalSeconds(),
+                    response.getMovementType() != null ? response.getMovementType().intern() : null,
+                    response.getValue(),
+                    response.getBalance());
+        }
+
+        private MovementResponse toResponse() {
+            MovementResponse response = new MovementResponse();
+            response.setMovementId(movementId);
+            response.setDate(OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.ofTotalSeconds(offsetSeconds)));
+            response.setMovementType(movementType);
+            response.setValue(value);
+            response.setBalance(balance);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.JournalCheckpoint;
+import com.bank.accounts.domain.model.JournalEntry;
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.JournalCheckpointRepository;
+import com.bank.accounts.domain.repository.MovementRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies journaled movements to the database in journal order, one transaction per batch. The
+ * journal position reached is stored in the same transaction, so after a crash the applier resumes
+ * exactly where the last commit left off. Entries journaled before a restart are replayed before
+ * the application accepts new movements.
+ */
+@Component
+@Profile("!r2dbc")
+@ConditionalOnProperty(name = "accounts.movements.durability", havingValue = "journal")
+@RequiredArgsConstructor
+public class JournalApplier {
+
+    private static final String CHECKPOINT = "movements";
+
+    private final MovementJournal journal;
+    private final JournaledMovementService journaledMovements;
+    private final AccountRepository accountRepository;
+    private final MovementRepository movementRepository;
+    private final DailyBalanceRecorder dailyBalanceRecorder;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final AccountCache accountCache;
+    private final ReportCache reportCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${accounts.journal.apply-batch-size:500}")
+    private final int batchSize;
+
+    @Value("${accounts.journal.retry-delay:PT1S}")
+    private final Duration retryDelay;
+
+    private volatile boolean running = true;
+    private volatile Thread worker;
+    private long position;
+
+    @PostConstruct
+    public void start() {
+        position = checkpointRepository.findById(CHECKPOINT).map(JournalCheckpoint::getPosition).orElse(0L);
+        int replayed = 0;
+        List<MovementJournal.Record> batch;
+        while (!(batch = journal.read(position, batchSize)).isEmpty()) {
+            apply(batch);
+            replayed += batch.size();
+        }
+        if (replayed > 0) {
+            System.out.println("Replayed journaled movements: " + replayed);
+        }
+        worker = Thread.ofPlatform().daemon().name("movement-journal-applier").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            current.join();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<MovementJournal.Record> batch = journal.read(position, batchSize);
+                if (batch.isEmpty()) {
+                    journal.awaitDurable(position, 100);
+                } else {
+                    apply(batch);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.out.println("Could not apply journaled movements, retrying: " + e.getMessage());
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(List<MovementJournal.Record> batch) {
+        long next = batch.get(batch.size() - 1).nextPosition();
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Account> accounts = accountRepository.findAllById(batch.stream()
+                            .map(record -> record.entry().accountId())
+                            .distinct()
+                            .toList())
+                    .stream()
+                    .collect(Collectors.toMap(Account::getAccountId, Function.identity()));
+            for (MovementJournal.Record record : batch) {
+                JournalEntry entry = record.entry();
+                Account account = accounts.get(entry.accountId());
+                if (account == null) {
+                    System.out.println("Skipping journaled movement for missing account " + entry.accountNumber());
+                    continue;
+                }
+                account.setInitialBalance(Math.addExact(account.getInitialBalance(), entry.signedValue()));
+
+                Movement movement = new Movement();
+                movement.setAccountId(account.getAccountId());
+                movement.setDate(entry.date());
+                movement.setMovementType(entry.movementType());
+                movement.setValue(entry.value());
+                movement.setBalance(account.getInitialBalance());
+                dailyBalanceRecorder.record(movementRepository.save(movement));
+            }
+            accounts.values().forEach(account -> {
+                accountRepository.save(account);
+                accountCache.putAfterCommit(account);
+                reportCache.invalidateAfterCommit(account.getClientId());
+            });
+            checkpointRepository.save(new JournalCheckpoint(CHECKPOINT, next));
+        });
+        position = next;
+        batch.forEach(record -> journaledMovements.applied(record.entry()));
+        journal.releaseBefore(next);
+    }
+}
@@ -0,0 +1,214 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.JournalEntry;
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.model.dto.MovementBatchItemResult;
+import com.bank.accounts.model.dto.MovementBatchResponse;
+import com.bank.accounts.model.dto.MovementRequest;
+import com.bank.accounts.model.dto.MovementResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Movement write path for {@code accounts.movements.durability=journal}. A movement is accepted
+ * once it is durable in the local {@link MovementJournal}; {@link JournalApplier} writes it to the
+ * database afterwards. Until then the account's balance is tracked in {@code pendingBalances}, so
+ * later movements are checked against every accepted movement, applied or not.
+ *
+ * <p>Acknowledged movements have no {@code movementId} yet; it is assigned when they are applied.
+ * Balances are read from and written to the account row alone, so this mode refuses to start with
+ * ledger balances or sharded accounts; idempotency keys are kept in memory only, so it refuses
+ * persistent idempotency too.
+ */
+@Service
+@Profile("!r2dbc")
+@ConditionalOnProperty(name = "accounts.movements.durability", havingValue = "journal")
+@RequiredArgsConstructor
+public class JournaledMovementService implements MovementService {
+
+    private static final CompletableFuture<Long> NOTHING_TO_AWAIT = CompletableFuture.completedFuture(0L);
+
+    private final MovementJournal journal;
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final AccountLockStripes accountLocks;
+    private final IdempotencyStore idempotencyStore;
+    private final Scheduler blockingScheduler;
+
+    @Value("${accounts.balance.mode:account}")
+    private final String balanceMode;
+
+    @Value("${accounts.balance.sharding.accounts:}")
+    private final Set<String> shardedAccounts;
+
+    @Value("${accounts.idempotency.persistent:false}")
+    private final boolean persistentIdempotency;
+
+    private final ConcurrentHashMap<String, PendingBalance> pendingBalances = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void checkBalanceMode() {
+        // Ledger mode never updates the account row, and a sharded account keeps part of its
+        // balance in slots; accept() and the applier would both work on a stale balance.
+        if ("ledger".equalsIgnoreCase(balanceMode)) {
+            throw new IllegalStateException(
+                    "accounts.movements.durability=journal cannot be combined with accounts.balance.mode=ledger");
+        }
+        if (!shardedAccounts.isEmpty()) {
+            throw new IllegalStateException(
+                    "accounts.movements.durability=journal cannot be combined with accounts.balance.sharding.accounts");
+        }
+        // Keys are only kept in memory here and would silently be lost on restart.
+        if (persistentIdempotency) {
+            throw new IllegalStateException(
+                    "accounts.movements.durability=journal cannot be combined with accounts.idempotency.persistent=true");
+        }
+    }
+
+    @Override
+    public Mono<MovementResponse> createMovement(MovementRequest movementRequest) {
+        return Mono.fromCallable(() -> accountLocks.withLock(movementRequest.getAccountNumber(), () -> accept(movementRequest)))
+                .subscribeOn(blockingScheduler)
+                .flatMap(accepted -> Mono.fromFuture(accepted.durable()).thenReturn(accepted.response()));
+    }
+
+    @Override
+    public Mono<MovementResponse> createMovement(MovementRequest movementRequest, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createMovement(movementRequest);
+        }
+        return idempotencyStore.execute(idempotencyKey, IdempotencyStore.requestHash(movementRequest),
+                () -> createMovement(movementRequest));
+    }
+
+    /**
+     * Journals the batch item by item and waits for durability once, after the last item.
+     */
+    @Override
+    public Mono<MovementBatchResponse> createMovements(Flux<MovementRequest> movementRequests) {
+        return movementRequests
+                .index()
+                .concatMap(item -> Mono.fromCallable(() -> accountLocks.withLock(item.getT2().getAccountNumber(), () -> {
+                            try {
+                                Accepted accepted = accept(item.getT2());
+                                return new BatchOutcome(MovementMapper.applied(item.getT1(), accepted.response()), accepted.durable());
+                            } catch (RuntimeException e) {
+                                return new BatchOutcome(MovementMapper.rejected(item.getT1(), e), NOTHING_TO_AWAIT);
+                            }
+                        }))
+                        .subscribeOn(blockingScheduler))
+                .collectList()
+                .flatMap(outcomes -> Mono.fromFuture(CompletableFuture.allOf(outcomes.stream()
+                                .map(BatchOutcome::durable)
+                                .toArray(CompletableFuture[]::new)))
+                        .thenReturn(MovementMapper.toBatchResponse(outcomes.stream().map(BatchOutcome::result).toList())));
+    }
+
+    /**
+     * Journal entries are applied one at a time, so several movements cannot be made durable as a
+     * unit; callers needing atomicity, such as transfers, must use the database durability mode.
+     * Rejected with a conflict rather than a server error, since the request itself is valid.
+     */
+    @Override
+    public Mono<List<MovementResponse>> createMovementsAtomically(List<MovementRequest> movementRequests) {
+        return Mono.error(new RuntimeException("Atomic movements are not available with journal durability"));
+    }
+
+    /**
+     * Called by the applier once the entry is committed to the database.
+     */
+    void applied(JournalEntry entry) {
+        pendingBalances.computeIfPresent(entry.accountNumber(), (accountNumber, pending) -> pending.release());
+    }
+
+    /**
+     * Must run under the account's stripe lock.
+     */
+    private Accepted accept(MovementRequest movementRequest) {
+        String accountNumber = movementRequest.getAccountNumber();
+        PendingBalance pending = pendingBalances.get(accountNumber);
+        long accountId;
+        long currentBalance;
+        if (pending != null) {
+            accountId = pending.accountId();
+            currentBalance = pending.balance();
+        } else {
+            Account account = accountCache.getIfPresent(accountNumber)
+                    .or(() -> accountRepository.findByAccountNumber(accountNumber).map(found -> {
+                        accountCache.put(found);
+                        return found;
+                    }))
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+            accountId = account.getAccountId();
+            currentBalance = account.getInitialBalance();
+        }
+
+        long value = Money.toMinorUnits(movementRequest.getValue());
+        if (value <= 0) {
+            throw new RuntimeException("Movement value must be greater than zero");
+        }
+        String movementType = movementRequest.getMovementType().getValue();
+        if (!"Debito".equalsIgnoreCase(movementType) && !"Credito".equalsIgnoreCase(movementType)) {
+            throw new IllegalArgumentException("Invalid movement type: " + movementType);
+        }
+
+        long newBalance = "Debito".equalsIgnoreCase(movementType)
+                ? Math.subtractExact(currentBalance, value)
+                : Math.addExact(currentBalance, value);
+        if (newBalance < 0) {
+            throw new RuntimeException("Saldo no disponible");
+        }
+
+        JournalEntry entry = new JournalEntry(accountId, accountNumber, movementType, value, newBalance, System.currentTimeMillis());
+
+        CompletableFuture<Long> durable = journal.append(entry);
+        pendingBalances.compute(accountNumber, (key, current) -> current == null
+                ? new PendingBalance(accountId, newBalance, 1)
+                : current.advance(newBalance));
+        return new Accepted(toResponse(entry), durable);
+    }
+
+    private MovementResponse toResponse(JournalEntry entry) {
+        MovementResponse response = new MovementResponse();
+        response.setDate(entry.date().atZone(ZoneId.systemDefault()).toOffsetDateTime());
+        response.setMovementType(entry.movementType());
+        response.setValue(Money.toDouble(entry.value()));
+        response.setBalance(Money.toDouble(entry.balance()));
+        return response;
+    }
+
+    /**
+     * Balance after the newest accepted movement and how many accepted movements are not applied yet.
+     */
+    private record PendingBalance(long accountId, long balance, int unapplied) {
+
+        private PendingBalance advance(long newBalance) {
+            return new PendingBalance(accountId, newBalance, unapplied + 1);
+        }
+
+        private PendingBalance release() {
+            return unapplied > 1 ? new PendingBalance(accountId, balance, unapplied - 1) : null;
+        }
+    }
+
+    private record Accepted(MovementResponse response, CompletableFuture<Long> durable) {
+    }
+
+    private record BatchOutcome(MovementBatchItemResult result, CompletableFuture<Long> durable) {
+    }
+}
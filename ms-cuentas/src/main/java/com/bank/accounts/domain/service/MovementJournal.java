@@ -0,0 +1,293 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.JournalEntry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of accepted movements, split into fixed-size segment files.
+ * Each record is {@code [length][crc32][payload]}. Appends only copy into the mapped segment; a
+ * single flusher thread forces everything written so far to disk in one go and then completes
+ * every append it covered, so concurrent writers share one fsync.
+ *
+ * <p>Positions are global byte offsets: segment {@code n} covers
+ * {@code [n * segmentSize, (n + 1) * segmentSize)}. A zero length marks the unused tail of a
+ * segment.
+ */
+@Component
+@ConditionalOnProperty(name = "accounts.movements.durability", havingValue = "journal")
+public class MovementJournal implements DisposableBean {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Map<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
+    private final Object durableSignal = new Object();
+    private final Thread flusher;
+
+    private MappedByteBuffer writeBuffer;
+    private long writeSegment;
+    private long writePosition;
+    private volatile long durablePosition;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    public MovementJournal(@Value("${accounts.journal.dir:journal}") Path directory,
+                           @Value("${accounts.journal.segment-size:64MB}") DataSize segmentSize) {
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open movement journal in " + directory, e);
+        }
+        this.flusher = Thread.ofPlatform().daemon().name("movement-journal-flusher").start(this::flushLoop);
+    }
+
+    /**
+     * Appends the entry and returns a future completed with the position after it once the entry
+     * is on disk.
+     */
+    public CompletableFuture<Long> append(JournalEntry entry) {
+        byte[] payload = entry.encode();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        synchronized (writeLock) {
+            if (failure != null) {
+                throw new IllegalStateException("Movement journal is unavailable", failure);
+            }
+            if (writeBuffer.remaining() < HEADER_BYTES + payload.length) {
+                rotate();
+            }
+            writeBuffer.putInt(payload.length);
+            writeBuffer.putInt((int) crc.getValue());
+            writeBuffer.put(payload);
+            writePosition = writeSegment * segmentSize + writeBuffer.position();
+            waiters.add(new Waiter(writePosition, durable));
+            writeLock.notifyAll();
+        }
+        return durable;
+    }
+
+    /**
+     * Reads up to {@code max} durable entries starting at {@code position}.
+     */
+    public List<Record> read(long position, int max) {
+        long limit = durablePosition;
+        List<Record> records = new ArrayList<>();
+        while (position < limit && records.size() < max) {
+            ByteBuffer segment = segment(position / segmentSize).duplicate();
+            int offset = (int) (position % segmentSize);
+            int length = segmentSize - offset < HEADER_BYTES ? 0 : segment.getInt(offset);
+            if (length == 0) {
+                position = (position / segmentSize + 1) * segmentSize;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            segment.get(offset + HEADER_BYTES, payload);
+            if (checksum(payload) != segment.getInt(offset + 4)) {
+                throw new IllegalStateException("Corrupt movement journal record at position " + position);
+            }
+            long next = position + HEADER_BYTES + length;
+            records.add(new Record(position, next, JournalEntry.decode(payload)));
+            position = next;
+        }
+        return records;
+    }
+
+    /**
+     * Blocks until an entry at or after {@code position} is durable or the timeout elapses.
+     */
+    public void awaitDurable(long position, long timeoutMillis) throws InterruptedException {
+        synchronized (durableSignal) {
+            if (durablePosition <= position) {
+                durableSignal.wait(timeoutMillis);
+            }
+        }
+    }
+
+    /**
+     * Deletes segments that lie entirely before {@code position}.
+     */
+    public void releaseBefore(long position) {
+        long firstNeeded = position / segmentSize;
+        try {
+            for (long index : segmentIndexes()) {
+                if (index < firstNeeded) {
+                    segments.remove(index);
+                    Files.deleteIfExists(segmentPath(index));
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not release movement journal segments: " + e.getMessage());
+        }
+    }
+
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        synchronized (writeLock) {
+            writeLock.notifyAll();
+        }
+        flusher.join();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            MappedByteBuffer buffer;
+            synchronized (writeLock) {
+                while (running && writePosition == durablePosition) {
+                    try {
+                        writeLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (!running && writePosition == durablePosition) {
+                    return;
+                }
+                target = writePosition;
+                buffer = writeBuffer;
+            }
+            try {
+                // Appends that arrive while this force runs join the next group.
+                buffer.force();
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    fail(new IOException("Cannot force movement journal to disk", e));
+                }
+                return;
+            }
+            durablePosition = target;
+            Waiter waiter;
+            while ((waiter = waiters.peek()) != null && waiter.position() <= target) {
+                if (waiters.remove(waiter)) {
+                    waiter.future().complete(waiter.position());
+                }
+            }
+            synchronized (durableSignal) {
+                durableSignal.notifyAll();
+            }
+        }
+    }
+
+    private void rotate() {
+        try {
+            writeBuffer.force();
+            writeBuffer = segment(writeSegment + 1);
+        } catch (UncheckedIOException e) {
+            fail(e.getCause());
+            throw new IllegalStateException("Cannot start movement journal segment " + (writeSegment + 1), e);
+        }
+        writeSegment++;
+        writePosition = writeSegment * segmentSize;
+    }
+
+    private void fail(IOException e) {
+        failure = e;
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.future().completeExceptionally(e);
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        long last = segmentIndexes().stream().mapToLong(Long::longValue).max().orElse(0);
+
+        writeSegment = last;
+        writeBuffer = segment(last);
+        int offset = 0;
+        while (segmentSize - offset >= HEADER_BYTES) {
+            int length = writeBuffer.getInt(offset);
+            if (length <= 0 || length > segmentSize - offset - HEADER_BYTES) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            writeBuffer.get(offset + HEADER_BYTES, payload);
+            if (checksum(payload) != writeBuffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        // Clear whatever a crash left half-written after the last complete record.
+        byte[] zeros = new byte[64 * 1024];
+        for (int i = offset; i < segmentSize; i += zeros.length) {
+            writeBuffer.put(i, zeros, 0, Math.min(zeros.length, segmentSize - i));
+        }
+        writeBuffer.force();
+        writeBuffer.position(offset);
+        writePosition = last * segmentSize + offset;
+        durablePosition = writePosition;
+    }
+
+    private MappedByteBuffer segment(long index) {
+        return segments.computeIfAbsent(index, this::map);
+    }
+
+    private MappedByteBuffer map(long index) {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Long> segmentIndexes() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SUFFIX));
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    public record Record(long position, long nextPosition, JournalEntry entry) {
+    }
+
+    private record Waiter(long position, CompletableFuture<Long> future) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.model.dto.MovementBatchItemResult;
+import com.bank.accounts.model.dto.MovementBatchResponse;
+import com.bank.accounts.model.dto.MovementResponse;
+
+import java.time.ZoneId;
+import java.util.List;
+
+final class MovementMapper {
+
+    private MovementMapper() {
+    }
+
+    static MovementResponse toResponse(Movement movement) {
+        MovementResponse response = new MovementResponse();
+        response.setMovementId(movement.getMovementId());
+        response.setDate(movement.getDate().atZone(ZoneId.systemDefault()).toOffsetDateTime());
+        response.setMovementType(movement.getMovementType());
+        response.setValue(Money.toDouble(movement.getValue()));
+        response.setBalance(Money.toDouble(movement.getBalance()));
+        return response;
+    }
+
+    static MovementBatchItemResult applied(long index, MovementResponse movement) {
+        MovementBatchItemResult result = new MovementBatchItemResult();
+        result.setIndex((int) index);
+        result.setStatus(MovementBatchItemResult.StatusEnum.APPLIED);
+        result.setMovement(movement);
+        return result;
+    }
+
+    static MovementBatchItemResult rejected(long index, Throwable e) {
+        MovementBatchItemResult result = new MovementBatchItemResult();
+        result.setIndex((int) index);
+        result.setStatus(MovementBatchItemResult.StatusEnum.REJECTED);
+        result.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        return result;
+    }
+
+    static MovementBatchResponse toBatchResponse(List<MovementBatchItemResult> results) {
+        int applied = (int) results.stream()
+                .filter(result -> result.getStatus() == MovementBatchItemResult.StatusEnum.APPLIED)
+                .count();
+
+        MovementBatchResponse response = new MovementBatchResponse();
+        response.setApplied(applied);
+        response.setRejected(results.size() - applied);
+        response.setResults(results);
+        return response;
+    }
+}
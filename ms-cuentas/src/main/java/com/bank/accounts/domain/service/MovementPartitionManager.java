@@ -0,0 +1,103 @@
+package com.bank.accounts.domain.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the monthly partitions of a range-partitioned {@code movement} table (see
+ * {@code entregables/BaseDatos-particionado.sql}) in step with the calendar. The current month and
+ * the next {@code premake-months} always have a partition before any movement is dated in them,
+ * and partitions older than {@code retention-months} are detached. A detached partition stays in
+ * the database as a plain table until an operator archives or drops it.
+ *
+ * <p>Runs once at startup and then every {@code maintenance-interval}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "accounts.movements.partitioning.enabled", havingValue = "true")
+public class MovementPartitionManager {
+
+    private static final String PREFIX = "movement_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PREFIX + "\\d{6}");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${accounts.movements.partitioning.premake-months:3}")
+    private final int premakeMonths;
+
+    @Value("${accounts.movements.partitioning.retention-months:24}")
+    private final int retentionMonths;
+
+    @Value("${accounts.balance.mode:account}")
+    private final String balanceMode;
+
+    @PostConstruct
+    void checkBalanceMode() {
+        // Ledger mode relies on a unique (account_id, ledger_sequence) key, which a partitioned
+        // table can only enforce per partition.
+        if ("ledger".equalsIgnoreCase(balanceMode)) {
+            throw new IllegalStateException(
+                    "accounts.movements.partitioning.enabled cannot be combined with accounts.balance.mode=ledger");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.movements.partitioning.maintenance-interval:PT6H}")
+    public void maintain() {
+        maintain(YearMonth.now());
+    }
+
+    public void maintain(YearMonth currentMonth) {
+        Set<YearMonth> attached = attachedPartitions();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            if (!attached.contains(month)) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF movement FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+                System.out.println("Created movement partition " + partitionName(month));
+            }
+        }
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        attached.stream()
+                .filter(month -> month.isBefore(oldestKept))
+                .sorted()
+                .forEach(month -> {
+                    jdbcTemplate.execute("ALTER TABLE movement DETACH PARTITION " + partitionName(month));
+                    System.out.println("Detached movement partition " + partitionName(month));
+                });
+    }
+
+    /**
+     * Months that currently have a partition attached to {@code movement}. Partitions not named by
+     * this class are left alone.
+     */
+    private Set<YearMonth> attachedPartitions() {
+        return jdbcTemplate.queryForList("SELECT child.relname FROM pg_inherits i "
+                                + "JOIN pg_class child ON child.oid = i.inhrelid "
+                                + "JOIN pg_class parent ON parent.oid = i.inhparent "
+                                + "WHERE parent.relname = 'movement'", String.class)
+                .stream()
+                .filter(name -> PARTITION_NAME.matcher(name).matches())
+                .map(name -> YearMonth.parse(name.substring(PREFIX.length()), SUFFIX))
+                .collect(Collectors.toSet());
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+}
@@ -1,9 +1,20 @@
 package com.bank.accounts.domain.service;
 
+import com.bank.accounts.model.dto.MovementBatchResponse;
 import com.bank.accounts.model.dto.MovementRequest;
 import com.bank.accounts.model.dto.MovementResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface MovementService {
     Mono<MovementResponse> createMovement(MovementRequest movementRequest);
+    Mono<MovementResponse> createMovement(MovementRequest movementRequest, String idempotencyKey);
+    Mono<MovementBatchResponse> createMovements(Flux<MovementRequest> movementRequests);
+
+    /**
+     * Applies every movement in one transaction, or none of them. Responses come back in request order.
+     */
+    Mono<List<MovementResponse>> createMovementsAtomically(List<MovementRequest> movementRequests);
 }
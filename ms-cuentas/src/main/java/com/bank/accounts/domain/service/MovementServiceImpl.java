@@ -1,76 +1,347 @@
 package com.bank.accounts.domain.service;
 
 import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.IdempotencyRecord;
+import com.bank.accounts.domain.model.Money;
 import com.bank.accounts.domain.model.Movement;
 import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.IdempotencyRecordRepository;
 import com.bank.accounts.domain.repository.MovementRepository;
+import com.bank.accounts.model.dto.MovementBatchItemResult;
+import com.bank.accounts.model.dto.MovementBatchResponse;
 import com.bank.accounts.model.dto.MovementRequest;
 import com.bank.accounts.model.dto.MovementResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.function.Tuple2;
 
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
+@Profile("!r2dbc")
+@ConditionalOnProperty(name = "accounts.movements.durability", havingValue = "database", matchIfMissing = true)
 @RequiredArgsConstructor
 public class MovementServiceImpl implements MovementService {
 
     private final MovementRepository movementRepository;
+    private final DailyBalanceRecorder dailyBalanceRecorder;
     private final AccountRepository accountRepository;
     private final TransactionTemplate transactionTemplate;
+    private final AccountLockStripes accountLocks;
+    private final AccountCache accountCache;
+    private final OptimisticRetry optimisticRetry;
+    private final AccountLedger accountLedger;
+    private final ShardedBalances shardedBalances;
+    private final ReportCache reportCache;
+    private final IdempotencyStore idempotencyStore;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Scheduler blockingScheduler;
+
+    @Value("${accounts.movements.batch.chunk-size:500}")
+    private final int batchChunkSize;
+
+    @Value("${accounts.idempotency.persistent:false}")
+    private final boolean persistentIdempotency;
+
+    /**
+     * {@code account} (default) keeps the balance on the account row; {@code ledger} derives it from
+     * the movements, so the write path only inserts.
+     */
+    @Value("${accounts.balance.mode:account}")
+    private final String balanceMode;
 
     @Override
     public Mono<MovementResponse> createMovement(MovementRequest movementRequest) {
-        return Mono.fromCallable(() -> 
-            transactionTemplate.execute(status -> {
-                Account account = accountRepository.findByAccountNumber(movementRequest.getAccountNumber())
-                        .orElseThrow(() -> new RuntimeException("Account not found"));
+        return optimisticRetry.apply(movementRequest.getAccountNumber(),
+                Mono.fromCallable(() -> withAccountLock(movementRequest.getAccountNumber(), () ->
+                    inTransaction(() -> MovementMapper.toResponse(applyMovement(movementRequest)))
+                )).subscribeOn(blockingScheduler));
+    }
 
-                if (movementRequest.getValue() <= 0) {
-                    throw new RuntimeException("Movement value must be greater than zero");
-                }
+    @Override
+    public Mono<MovementResponse> createMovement(MovementRequest movementRequest, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createMovement(movementRequest);
+        }
+        long requestHash = IdempotencyStore.requestHash(movementRequest);
+        return idempotencyStore.execute(idempotencyKey, requestHash, () -> optimisticRetry.apply(movementRequest.getAccountNumber(),
+                Mono.fromCallable(() -> withAccountLock(movementRequest.getAccountNumber(), () -> persistentIdempotency
+                        ? applyOnce(movementRequest, idempotencyKey, requestHash)
+                        : inTransaction(() -> MovementMapper.toResponse(applyMovement(movementRequest)))
+                )).subscribeOn(blockingScheduler)));
+    }
+
+    /**
+     * Locks every account involved and applies the movements in account number order, so the
+     * account rows are always updated in the same order and two transactions touching the same
+     * accounts in opposite directions cannot deadlock in the database either.
+     */
+    @Override
+    public Mono<List<MovementResponse>> createMovementsAtomically(List<MovementRequest> movementRequests) {
+        List<String> accountNumbers = movementRequests.stream().map(MovementRequest::getAccountNumber).toList();
+        List<Integer> applyOrder = IntStream.range(0, movementRequests.size()).boxed()
+                .sorted(Comparator.comparing(accountNumbers::get, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+        return optimisticRetry.apply(accountNumbers.isEmpty() ? null : accountNumbers.get(0),
+                Mono.fromCallable(() -> accountLocks.withLocks(accountNumbers, () -> inTransaction(() -> {
+                    MovementResponse[] responses = new MovementResponse[movementRequests.size()];
+                    for (int index : applyOrder) {
+                        responses[index] = MovementMapper.toResponse(applyMovement(movementRequests.get(index)));
+                    }
+                    return List.of(responses);
+                }))).subscribeOn(blockingScheduler));
+    }
+
+    /**
+     * Sharded accounts skip the stripe lock: their slots are updated with atomic statements.
+     */
+    private <T> T withAccountLock(String accountNumber, Supplier<T> action) {
+        return shardedBalances.isSharded(accountNumber) ? action.get() : accountLocks.withLock(accountNumber, action);
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } catch (DataIntegrityViolationException e) {
+            if (isLedgerMode()) {
+                // Another writer recorded the same ledger position first; retry on a fresh read.
+                throw new OptimisticLockingFailureException("Ledger position already taken", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Applies the movement and records the key in the same transaction. When another instance
+     * records the same key first, the insert fails on the primary key, this transaction rolls
+     * back, and the other instance's movement is replayed instead.
+     */
+    private MovementResponse applyOnce(MovementRequest movementRequest, String idempotencyKey, long requestHash) {
+        try {
+            return inTransaction(() -> recordedMovement(idempotencyKey, requestHash).orElseGet(() -> {
+                Movement movement = applyMovement(movementRequest);
+                idempotencyRecordRepository.save(new IdempotencyRecord(idempotencyKey, requestHash,
+                        movement.getMovementId(), LocalDateTime.now()));
+                return MovementMapper.toResponse(movement);
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return recordedMovement(idempotencyKey, requestHash).orElseThrow(() -> e);
+        }
+    }
 
-                double newBalance = calculateNewBalance(account.getInitialBalance(), movementRequest.getValue(), movementRequest.getMovementType().getValue());
+    private Optional<MovementResponse> recordedMovement(String idempotencyKey, long requestHash) {
+        return idempotencyRecordRepository.findById(idempotencyKey)
+                .flatMap(record -> {
+                    if (record.getRequestHash() != null && record.getRequestHash() != requestHash) {
+                        throw new RuntimeException("Idempotency key was already used with a different request");
+                    }
+                    return movementRepository.findById(record.getMovementId());
+                })
+                .map(MovementMapper::toResponse);
+    }
+
+    @Override
+    public Mono<MovementBatchResponse> createMovements(Flux<MovementRequest> movementRequests) {
+        return movementRequests
+                .index()
+                .buffer(batchChunkSize)
+                .concatMap(chunk -> Mono.fromCallable(() -> applyChunk(chunk))
+                        .subscribeOn(blockingScheduler))
+                .flatMapIterable(Function.identity())
+                .collectList()
+                .map(MovementMapper::toBatchResponse);
+    }
 
-                if (newBalance < 0) {
-                    throw new RuntimeException("Saldo no disponible");
+    private List<MovementBatchItemResult> applyChunk(List<Tuple2<Long, MovementRequest>> chunk) {
+        List<String> accountNumbers = chunk.stream()
+                .map(item -> item.getT2().getAccountNumber())
+                .collect(Collectors.toList());
+        try {
+            return accountLocks.withLocks(accountNumbers, () -> transactionTemplate.execute(status -> {
+                // Load every account of the chunk up front so no query forces a flush mid-chunk
+                // and the movement inserts reach the database as JDBC batches on commit.
+                Map<String, Account> accounts = accountRepository.findByAccountNumberIn(accountNumbers).stream()
+                        .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+                Map<Long, AccountLedger.Position> ledgerPositions = isLedgerMode()
+                        ? new HashMap<>(accountLedger.positionsOf(accounts.values().stream().map(Account::getAccountId).toList()))
+                        : null;
+                List<MovementBatchItemResult> results = new ArrayList<>(chunk.size());
+                for (Tuple2<Long, MovementRequest> item : chunk) {
+                    Optional<Account> account = Optional.ofNullable(accounts.get(item.getT2().getAccountNumber()));
+                    results.add(applyBatchItem(item.getT1(), () -> ledgerPositions != null
+                            ? appendToLedger(item.getT2(), account, ledgerPositions)
+                            : applyMovement(item.getT2(), account)));
                 }
+                return results;
+            }));
+        } catch (RuntimeException e) {
+            // The shared transaction could not commit; apply the chunk one movement at a time
+            // so a single failing item cannot reject the others.
+            List<MovementBatchItemResult> results = new ArrayList<>(chunk.size());
+            for (Tuple2<Long, MovementRequest> item : chunk) {
+                results.add(accountLocks.withLock(item.getT2().getAccountNumber(), () -> {
+                    try {
+                        return transactionTemplate.execute(status -> applyBatchItem(item.getT1(),
+                                () -> applyMovement(item.getT2())));
+                    } catch (RuntimeException itemError) {
+                        return MovementMapper.rejected(item.getT1(), itemError);
+                    }
+                }));
+            }
+            return results;
+        }
+    }
+
+    private MovementBatchItemResult applyBatchItem(long index, Supplier<Movement> movement) {
+        try {
+            return MovementMapper.applied(index, MovementMapper.toResponse(movement.get()));
+        } catch (RuntimeException e) {
+            return MovementMapper.rejected(index, e);
+        }
+    }
+
+    private Movement applyMovement(MovementRequest movementRequest) {
+        if (isLedgerMode()) {
+            Optional<Account> account = accountCache.getIfPresent(movementRequest.getAccountNumber());
+            if (account.isEmpty()) {
+                account = accountRepository.findByAccountNumber(movementRequest.getAccountNumber());
+                account.ifPresent(accountCache::putAfterCommit);
+            }
+            return appendToLedger(movementRequest, account, new HashMap<>());
+        }
+        if (shardedBalances.isSharded(movementRequest.getAccountNumber())) {
+            return applyMovement(movementRequest, accountCache.getIfPresent(movementRequest.getAccountNumber())
+                    .or(() -> accountRepository.findByAccountNumber(movementRequest.getAccountNumber())));
+        }
+        Optional<Movement> applied = accountCache.getIfPresent(movementRequest.getAccountNumber())
+                .flatMap(account -> applyToCachedAccount(movementRequest, account));
+        if (applied.isPresent()) {
+            return applied.get();
+        }
+        return applyMovement(movementRequest, accountRepository.findByAccountNumber(movementRequest.getAccountNumber()));
+    }
+
+    /**
+     * Applies the movement with one versioned UPDATE against the cached account, skipping the
+     * account SELECT. Returns empty when the cached version turns out to be stale or the balance
+     * too low, so the caller re-checks against the database.
+     */
+    private Optional<Movement> applyToCachedAccount(MovementRequest movementRequest, Account account) {
+        long value = validatedValue(movementRequest);
+        long newBalance = calculateNewBalance(account.getInitialBalance(), value, movementRequest.getMovementType().getValue());
+        if (newBalance < 0) {
+            return Optional.empty();
+        }
+        if (accountRepository.updateBalance(account.getAccountId(), account.getVersion(), newBalance) == 0) {
+            accountCache.evict(account.getAccountId());
+            return Optional.empty();
+        }
+
+        account.setInitialBalance(newBalance);
+        account.setVersion(account.getVersion() + 1);
+        accountCache.putAfterCommit(account);
+        return Optional.of(record(account, newMovement(account.getAccountId(), movementRequest, value, newBalance)));
+    }
+
+    private Movement applyMovement(MovementRequest movementRequest, Optional<Account> existingAccount) {
+        Account account = existingAccount.orElseThrow(() -> new RuntimeException("Account not found"));
+
+        long value = validatedValue(movementRequest);
+        if (shardedBalances.isSharded(account.getAccountNumber())) {
+            long newBalance = shardedBalances.apply(account, movementRequest.getMovementType().getValue(), value);
+            return record(account, newMovement(account.getAccountId(), movementRequest, value, newBalance));
+        }
+        long newBalance = calculateNewBalance(account.getInitialBalance(), value, movementRequest.getMovementType().getValue());
+
+        if (newBalance < 0) {
+            throw new RuntimeException("Saldo no disponible");
+        }
+
+        account.setInitialBalance(newBalance);
+        accountRepository.save(account);
+        accountCache.putAfterCommit(account);
+
+        return record(account, newMovement(account.getAccountId(), movementRequest, value, newBalance));
+    }
+
+    /**
+     * Records the movement at the account's next ledger position without touching the account row.
+     * {@code positions} carries the positions already advanced within the current transaction.
+     */
+    private Movement appendToLedger(MovementRequest movementRequest, Optional<Account> existingAccount,
+                                    Map<Long, AccountLedger.Position> positions) {
+        Account account = existingAccount.orElseThrow(() -> new RuntimeException("Account not found"));
+
+        long value = validatedValue(movementRequest);
+        AccountLedger.Position position = positions.computeIfAbsent(account.getAccountId(), accountLedger::positionOf);
+        long newBalance = calculateNewBalance(position.balance(), value, movementRequest.getMovementType().getValue());
+
+        if (newBalance < 0) {
+            throw new RuntimeException("Saldo no disponible");
+        }
+
+        AccountLedger.Position next = position.append(newBalance);
+        positions.put(account.getAccountId(), next);
 
-                account.setInitialBalance(newBalance);
-                accountRepository.save(account);
+        Movement movement = newMovement(account.getAccountId(), movementRequest, value, newBalance);
+        movement.setLedgerSequence(next.sequence());
+        return record(account, movement);
+    }
 
-                Movement movement = new Movement();
-                movement.setAccountId(account.getAccountId());
-                movement.setDate(LocalDateTime.now());
-                movement.setMovementType(movementRequest.getMovementType().getValue());
-                movement.setValue(movementRequest.getValue());
-                movement.setBalance(newBalance);
+    private Movement record(Account account, Movement movement) {
+        reportCache.invalidateAfterCommit(account.getClientId());
+        Movement saved = movementRepository.save(movement);
+        dailyBalanceRecorder.record(saved);
+        return saved;
+    }
 
-                return convertToResponse(movementRepository.save(movement));
-            })
-        ).subscribeOn(Schedulers.boundedElastic());
+    private Movement newMovement(Long accountId, MovementRequest movementRequest, long value, long balance) {
+        Movement movement = new Movement();
+        movement.setAccountId(accountId);
+        movement.setDate(LocalDateTime.now());
+        movement.setMovementType(movementRequest.getMovementType().getValue());
+        movement.setValue(value);
+        movement.setBalance(balance);
+        return movement;
     }
 
-    private double calculateNewBalance(double currentBalance, double value, String movementType) {
+    private long validatedValue(MovementRequest movementRequest) {
+        long value = Money.toMinorUnits(movementRequest.getValue());
+        if (value <= 0) {
+            throw new RuntimeException("Movement value must be greater than zero");
+        }
+        return value;
+    }
+
+    private boolean isLedgerMode() {
+        return "ledger".equalsIgnoreCase(balanceMode);
+    }
+
+    private long calculateNewBalance(long currentBalance, long value, String movementType) {
         if ("Debito".equalsIgnoreCase(movementType)) {
-            return currentBalance - value;
+            return Math.subtractExact(currentBalance, value);
         } else if ("Credito".equalsIgnoreCase(movementType)) {
-            return currentBalance + value;
+            return Math.addExact(currentBalance, value);
         }
         throw new IllegalArgumentException("Invalid movement type: " + movementType);
     }
-
-    private MovementResponse convertToResponse(Movement movement) {
-        MovementResponse response = new MovementResponse();
-        response.setMovementId(movement.getMovementId());
-        response.setDate(movement.getDate().atZone(ZoneId.systemDefault()).toOffsetDateTime());
-        response.setMovementType(movement.getMovementType());
-        response.setValue(movement.getValue());
-        response.setBalance(movement.getBalance());
-        return response;
-    }
 }
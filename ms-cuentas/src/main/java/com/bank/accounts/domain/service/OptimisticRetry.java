@@ -0,0 +1,48 @@
+package com.bank.accounts.domain.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Re-runs a balance update that lost an optimistic version check to a concurrent writer. Every
+ * attempt re-reads the account; the jittered backoff waits on Reactor's parallel timer rather than
+ * the event loop. Conflicts and retries are counted in {@code accounts.movements.conflicts} and
+ * {@code accounts.movements.retries}; the counters carry no account tag, since one time series per
+ * account would grow without bound, and each conflict logs its account number instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class OptimisticRetry {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${accounts.movements.retry.max-retries:3}")
+    private final int maxRetries;
+
+    @Value("${accounts.movements.retry.min-backoff:PT0.01S}")
+    private final Duration minBackoff;
+
+    @Value("${accounts.movements.retry.max-backoff:PT0.2S}")
+    private final Duration maxBackoff;
+
+    public <T> Mono<T> apply(String accountNumber, Mono<T> attempt) {
+        return attempt
+                .doOnError(OptimisticLockingFailureException.class, e -> {
+                    System.out.println("Optimistic conflict on account " + accountNumber);
+                    meterRegistry.counter("accounts.movements.conflicts").increment();
+                })
+                .retryWhen(Retry.backoff(maxRetries, minBackoff)
+                        .maxBackoff(maxBackoff)
+                        .jitter(0.5)
+                        .filter(OptimisticLockingFailureException.class::isInstance)
+                        .doBeforeRetry(signal -> meterRegistry.counter("accounts.movements.retries").increment())
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.bank.accounts.domain.service;
+
+/**
+ * Resolves the page size a client asked for against the configured maximum.
+ */
+final class PageLimits {
+
+    private PageLimits() {
+    }
+
+    /**
+     * Returns {@code requested} capped at {@code max}, or {@code max} when no size was given.
+     */
+    static int resolve(Integer requested, int max) {
+        if (requested == null) {
+            return max;
+        }
+        if (requested <= 0) {
+            throw new RuntimeException("Page limit must be greater than zero");
+        }
+        return Math.min(requested, max);
+    }
+}
@@ -0,0 +1,114 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.repository.ReactiveAccountRepository;
+import com.bank.accounts.model.dto.AccountRequest;
+import com.bank.accounts.model.dto.AccountResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Account CRUD over R2DBC, used with the {@code r2dbc} profile. {@link R2dbcMovementServiceImpl}
+ * refuses ledger balances and sharded accounts, so the balance is always the account row's own.
+ * Report caches are invalidated once the transaction has committed.
+ */
+@Service
+@Profile("r2dbc")
+@RequiredArgsConstructor
+public class R2dbcAccountServiceImpl implements AccountService {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ReportCache reportCache;
+
+    @Value("${accounts.pagination.max-limit:1000}")
+    private final int maxPageSize;
+
+    @Override
+    public Flux<AccountResponse> getAllAccounts() {
+        return accountPage(Long.MIN_VALUE, maxPageSize)
+                .expand(page -> page.size() < maxPageSize
+                        ? Mono.empty()
+                        : accountPage(page.get(page.size() - 1).getAccountId(), maxPageSize))
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    @Override
+    public Flux<AccountResponse> getAccounts(Long afterId, Integer limit) {
+        return Mono.fromCallable(() -> PageLimits.resolve(limit, maxPageSize))
+                .flatMapMany(size -> accountRepository.findPageAfter(afterId != null ? afterId : Long.MIN_VALUE, size))
+                .map(R2dbcAccountServiceImpl::convertToResponse);
+    }
+
+    @Override
+    public Mono<AccountResponse> getAccountById(Long id) {
+        return accountRepository.findById(id)
+                .switchIfEmpty(notFound(id))
+                .map(R2dbcAccountServiceImpl::convertToResponse);
+    }
+
+    @Override
+    public Mono<AccountResponse> createAccount(AccountRequest accountRequest) {
+        return Mono.fromCallable(() -> AccountMapper.toEntity(accountRequest))
+                .flatMap(accountRepository::insert)
+                .as(transactionalOperator::transactional)
+                .doOnNext(account -> reportCache.invalidate(account.getClientId()))
+                .map(R2dbcAccountServiceImpl::convertToResponse);
+    }
+
+    @Override
+    public Mono<AccountResponse> updateAccount(Long id, AccountRequest accountRequest) {
+        return accountRepository.findById(id)
+                .switchIfEmpty(notFound(id))
+                .flatMap(existingAccount -> {
+                    Long previousClientId = existingAccount.getClientId();
+                    AccountMapper.updateFromRequest(existingAccount, accountRequest);
+                    return accountRepository.update(existingAccount)
+                            .switchIfEmpty(Mono.error(() -> new OptimisticLockingFailureException(
+                                    "Account " + id + " was updated or deleted concurrently")))
+                            .map(account -> Tuples.of(previousClientId, account));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(updated -> {
+                    reportCache.invalidate(updated.getT1());
+                    if (!updated.getT1().equals(updated.getT2().getClientId())) {
+                        reportCache.invalidate(updated.getT2().getClientId());
+                    }
+                })
+                .map(updated -> convertToResponse(updated.getT2()));
+    }
+
+    @Override
+    public Mono<Void> deleteAccount(Long id) {
+        return accountRepository.findById(id)
+                .switchIfEmpty(notFound(id))
+                .flatMap(account -> accountRepository.deleteById(id).thenReturn(account))
+                .as(transactionalOperator::transactional)
+                .doOnNext(account -> reportCache.invalidate(account.getClientId()))
+                .then();
+    }
+
+    private Mono<List<AccountResponse>> accountPage(Long afterId, int size) {
+        return accountRepository.findPageAfter(afterId, size)
+                .map(R2dbcAccountServiceImpl::convertToResponse)
+                .collectList();
+    }
+
+    private static <T> Mono<T> notFound(Long id) {
+        return Mono.error(() -> new RuntimeException("Account not found with id: " + id));
+    }
+
+    private static AccountResponse convertToResponse(Account account) {
+        return AccountMapper.toResponse(account, account.getInitialBalance());
+    }
+}
@@ -0,0 +1,200 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.ReactiveAccountRepository;
+import com.bank.accounts.domain.repository.ReactiveMovementRepository;
+import com.bank.accounts.model.dto.MovementBatchItemResult;
+import com.bank.accounts.model.dto.MovementBatchResponse;
+import com.bank.accounts.model.dto.MovementRequest;
+import com.bank.accounts.model.dto.MovementResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Non-blocking movement write path used with the {@code r2dbc} profile. The balance check and
+ * update happen in one conditional UPDATE, so no in-process lock or blocking thread is needed.
+ * That UPDATE only sees the account row, so this path refuses to start with ledger balances or
+ * sharded accounts. Idempotency keys are kept in memory only, so it refuses persistent
+ * idempotency too.
+ */
+@Service
+@Profile("r2dbc")
+@RequiredArgsConstructor
+public class R2dbcMovementServiceImpl implements MovementService {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final ReactiveMovementRepository movementRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final IdempotencyStore idempotencyStore;
+    private final AccountCache accountCache;
+    private final ReportCache reportCache;
+
+    @Value("${accounts.movements.batch.chunk-size:500}")
+    private final int batchChunkSize;
+
+    @Value("${accounts.balance.mode:account}")
+    private final String balanceMode;
+
+    @Value("${accounts.balance.sharding.accounts:}")
+    private final Set<String> shardedAccounts;
+
+    @Value("${accounts.idempotency.persistent:false}")
+    private final boolean persistentIdempotency;
+
+    @PostConstruct
+    public void checkBalanceMode() {
+        if ("ledger".equalsIgnoreCase(balanceMode)) {
+            throw new IllegalStateException("The r2dbc profile cannot be combined with accounts.balance.mode=ledger");
+        }
+        if (!shardedAccounts.isEmpty()) {
+            throw new IllegalStateException("The r2dbc profile cannot be combined with accounts.balance.sharding.accounts");
+        }
+        if (persistentIdempotency) {
+            throw new IllegalStateException("The r2dbc profile cannot be combined with accounts.idempotency.persistent=true");
+        }
+    }
+
+    @Override
+    public Mono<MovementResponse> createMovement(MovementRequest movementRequest) {
+        return applyMovement(movementRequest)
+                .as(transactionalOperator::transactional)
+                // Balances change here without an in-process lock, so concurrent commits could
+                // write the cache out of order; the cached entry is dropped instead of updated.
+                .doOnNext(applied -> {
+                    accountCache.evict(applied.movement().getAccountId());
+                    reportCache.invalidate(applied.clientId());
+                })
+                .map(applied -> MovementMapper.toResponse(applied.movement()));
+    }
+
+    @Override
+    public Mono<MovementResponse> createMovement(MovementRequest movementRequest, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createMovement(movementRequest);
+        }
+        return idempotencyStore.execute(idempotencyKey, IdempotencyStore.requestHash(movementRequest),
+                () -> createMovement(movementRequest));
+    }
+
+    @Override
+    public Mono<MovementBatchResponse> createMovements(Flux<MovementRequest> movementRequests) {
+        return movementRequests
+                .index()
+                .buffer(batchChunkSize)
+                .concatMap(this::applyChunk)
+                .flatMapIterable(Function.identity())
+                .collectList()
+                .map(MovementMapper::toBatchResponse);
+    }
+
+    /**
+     * Applies the movements in account number order, so the conditional UPDATEs lock account rows
+     * in the same order in every transaction and opposite-direction transfers cannot deadlock.
+     */
+    @Override
+    public Mono<List<MovementResponse>> createMovementsAtomically(List<MovementRequest> movementRequests) {
+        return Mono.defer(() -> {
+            MovementResponse[] responses = new MovementResponse[movementRequests.size()];
+            Set<Long> touchedAccounts = new HashSet<>();
+            Set<Long> touchedClients = new HashSet<>();
+            return Flux.fromStream(IntStream.range(0, movementRequests.size()).boxed()
+                            .sorted(Comparator.comparing(index -> movementRequests.get(index).getAccountNumber(),
+                                    Comparator.nullsFirst(Comparator.naturalOrder()))))
+                    .concatMap(index -> applyMovement(movementRequests.get(index))
+                            .doOnNext(applied -> {
+                                touchedAccounts.add(applied.movement().getAccountId());
+                                touchedClients.add(applied.clientId());
+                                responses[index] = MovementMapper.toResponse(applied.movement());
+                            }))
+                    .then()
+                    .as(transactionalOperator::transactional)
+                    .then(Mono.fromSupplier(() -> {
+                        touchedAccounts.forEach(accountCache::evict);
+                        touchedClients.forEach(reportCache::invalidate);
+                        return List.of(responses);
+                    }));
+        });
+    }
+
+    private Mono<List<MovementBatchItemResult>> applyChunk(List<Tuple2<Long, MovementRequest>> chunk) {
+        return Mono.defer(() -> {
+            Set<Long> touchedAccounts = new HashSet<>();
+            Set<Long> touchedClients = new HashSet<>();
+            return Flux.fromIterable(chunk)
+                    .concatMap(item -> applyMovement(item.getT2())
+                            .doOnNext(applied -> {
+                                touchedAccounts.add(applied.movement().getAccountId());
+                                touchedClients.add(applied.clientId());
+                            })
+                            .map(applied -> MovementMapper.applied(item.getT1(), MovementMapper.toResponse(applied.movement())))
+                            .onErrorResume(e -> !(e instanceof DataAccessException),
+                                    e -> Mono.just(MovementMapper.rejected(item.getT1(), e))))
+                    .collectList()
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(results -> {
+                        touchedAccounts.forEach(accountCache::evict);
+                        touchedClients.forEach(reportCache::invalidate);
+                    });
+        })
+                // A database error aborts the shared transaction; fall back to one transaction per
+                // movement so only the failing item is rejected.
+                .onErrorResume(DataAccessException.class, e -> Flux.fromIterable(chunk)
+                        .concatMap(item -> createMovement(item.getT2())
+                                .map(response -> MovementMapper.applied(item.getT1(), response))
+                                .onErrorResume(itemError -> Mono.just(MovementMapper.rejected(item.getT1(), itemError))))
+                        .collectList());
+    }
+
+    private Mono<AppliedMovement> applyMovement(MovementRequest movementRequest) {
+        return Mono.fromCallable(() -> {
+                    long value = Money.toMinorUnits(movementRequest.getValue());
+                    if (value <= 0) {
+                        throw new RuntimeException("Movement value must be greater than zero");
+                    }
+                    return signedDelta(value, movementRequest.getMovementType().getValue());
+                })
+                .flatMap(delta -> accountRepository.applyDelta(movementRequest.getAccountNumber(), delta)
+                        .switchIfEmpty(accountRepository.existsByAccountNumber(movementRequest.getAccountNumber())
+                                .flatMap(exists -> Mono.error(new RuntimeException(
+                                        exists ? "Saldo no disponible" : "Account not found"))))
+                        .flatMap(change -> {
+                            Movement movement = new Movement();
+                            movement.setAccountId(change.accountId());
+                            movement.setDate(LocalDateTime.now());
+                            movement.setMovementType(movementRequest.getMovementType().getValue());
+                            movement.setValue(Math.abs(delta));
+                            movement.setBalance(change.balance());
+                            return movementRepository.insert(movement)
+                                    .map(inserted -> new AppliedMovement(inserted, change.clientId()));
+                        }));
+    }
+
+    private long signedDelta(long value, String movementType) {
+        if ("Debito".equalsIgnoreCase(movementType)) {
+            return -value;
+        } else if ("Credito".equalsIgnoreCase(movementType)) {
+            return value;
+        }
+        throw new IllegalArgumentException("Invalid movement type: " + movementType);
+    }
+
+    private record AppliedMovement(Movement movement, long clientId) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.model.dto.AccountStatementReport;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of account statements by {@code (clientId, startDate, endDate)}. Every client with
+ * cached reports has a generation that is replaced whenever one of its accounts or movements
+ * changes; entries are stored under the generation current when the report was started, so
+ * invalidating a client is a single map update and its older entries simply stop matching until
+ * they are evicted.
+ *
+ * <p>Generations come from one counter and are never reused, so a client's generation can expire
+ * with its reports: the next report starts under a fresh one that no older entry matches.
+ *
+ * <p>Hits, misses and size are published as {@code cache.*} metrics tagged {@code cache=reports};
+ * invalidations are counted in {@code accounts.reports.cache.invalidations}.
+ */
+@Component
+public class ReportCache {
+
+    private final Cache<Key, AccountStatementReport> reports;
+    private final Cache<Long, Long> generations;
+    private final AtomicLong lastGeneration = new AtomicLong();
+    private final Counter invalidations;
+
+    @Autowired
+    public ReportCache(MeterRegistry meterRegistry,
+                       @Value("${accounts.reports.cache.max-size:1000}") long maxSize,
+                       @Value("${accounts.reports.cache.ttl:PT10M}") Duration ttl) {
+        this.reports = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .build();
+        this.invalidations = meterRegistry.counter("accounts.reports.cache.invalidations");
+        CaffeineCacheMetrics.monitor(meterRegistry, reports, "reports");
+    }
+
+    public ReportCache(long maxSize, Duration ttl) {
+        this(new SimpleMeterRegistry(), maxSize, ttl);
+    }
+
+    /**
+     * Returns the cached statement, or subscribes to {@code loader} and caches what it emits.
+     */
+    public Mono<AccountStatementReport> get(Long clientId, LocalDate startDate, LocalDate endDate,
+                                            Supplier<Mono<AccountStatementReport>> loader) {
+        return Mono.defer(() -> {
+            // Read the generation before loading: a change committed meanwhile bumps it, so a
+            // report that may have missed the change is stored under a key nobody asks for.
+            Key key = new Key(clientId, startDate, endDate,
+                    generations.get(clientId, id -> lastGeneration.incrementAndGet()));
+            AccountStatementReport cached = reports.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.get().doOnNext(report -> reports.put(key, report));
+        });
+    }
+
+    public void invalidate(Long clientId) {
+        if (clientId == null) {
+            return;
+        }
+        // A client without a generation has no report that could still match.
+        generations.asMap().computeIfPresent(clientId, (id, generation) -> lastGeneration.incrementAndGet());
+        invalidations.increment();
+    }
+
+    /**
+     * Invalidates the client once the surrounding transaction commits, so a report started before
+     * the commit cannot be cached as current. Without an active transaction it happens at once.
+     */
+    public void invalidateAfterCommit(Long clientId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(clientId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(clientId);
+            }
+        });
+    }
+
+    public CacheStats stats() {
+        return reports.stats();
+    }
+
+    public long size() {
+        return reports.estimatedSize();
+    }
+
+    private record Key(Long clientId, LocalDate startDate, LocalDate endDate, long generation) {
+    }
+}
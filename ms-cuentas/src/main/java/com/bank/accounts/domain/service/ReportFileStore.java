@@ -0,0 +1,84 @@
+package com.bank.accounts.domain.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.ThrowingConsumer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+/**
+ * Local directory holding the statements produced by report jobs, one JSON file per job. A file
+ * is written under a temporary name and moved into place once complete, so a reader never sees a
+ * partial statement. Files left over from a previous run are removed at startup, since the jobs
+ * that owned them are gone.
+ */
+@Component
+public class ReportFileStore {
+
+    private static final String SUFFIX = ".json";
+    private static final String PARTIAL_SUFFIX = ".json.partial";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    public ReportFileStore(ObjectMapper objectMapper, @Value("${accounts.reports.jobs.dir:report-jobs}") Path directory) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open report job directory " + directory, e);
+        }
+    }
+
+    /**
+     * Runs {@code writer} against a JSON generator backed by the file for {@code name} and
+     * returns the file once it is complete.
+     */
+    public Path write(String name, ThrowingConsumer<JsonGenerator> writer) {
+        Path partial = directory.resolve(name + PARTIAL_SUFFIX);
+        Path target = pathOf(name);
+        try {
+            try (OutputStream out = Files.newOutputStream(partial);
+                 JsonGenerator json = objectMapper.createGenerator(out)) {
+                writer.accept(json);
+            }
+            return Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            delete(partial);
+            throw new UncheckedIOException("Cannot write report " + name, e);
+        } catch (RuntimeException e) {
+            delete(partial);
+            throw e;
+        }
+    }
+
+    public Path pathOf(String name) {
+        return directory.resolve(name + SUFFIX);
+    }
+
+    public void delete(String name) {
+        delete(pathOf(name));
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.out.println("Could not delete report file " + file + ": " + e.getMessage());
+        }
+    }
+}
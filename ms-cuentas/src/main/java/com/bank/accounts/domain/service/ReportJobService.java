@@ -0,0 +1,171 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.model.dto.ReportJob;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates statements in the background on a fixed pool of {@code workers} threads with a
+ * bounded queue, so long reports never occupy the request path or the blocking scheduler. While a
+ * job for a client and date range is pending or running, submissions for the same range join it
+ * instead of queueing another computation.
+ *
+ * <p>Job state lives in memory: a restart forgets every job, and {@link ReportFileStore} removes
+ * their files. Finished jobs are kept for {@code ttl}.
+ */
+@Service
+public class ReportJobService {
+
+    private final ReportService reportService;
+    private final ReportFileStore fileStore;
+    private final Duration ttl;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Key, Job> activeJobs = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService, ReportFileStore fileStore,
+                            @Value("${accounts.reports.jobs.workers:2}") int workers,
+                            @Value("${accounts.reports.jobs.queue-capacity:100}") int queueCapacity,
+                            @Value("${accounts.reports.jobs.ttl:PT1H}") Duration ttl) {
+        this.reportService = reportService;
+        this.fileStore = fileStore;
+        this.ttl = ttl;
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().daemon().name("report-job-", 0).factory());
+    }
+
+    public Mono<ReportJob> submit(Long clientId, LocalDate startDate, LocalDate endDate) {
+        return Mono.fromCallable(() -> toReportJob(enqueue(new Key(clientId, startDate, endDate))));
+    }
+
+    public Mono<ReportJob> getJob(String jobId) {
+        return Mono.fromCallable(() -> toReportJob(find(jobId)));
+    }
+
+    /**
+     * The file holding the statement of a finished job.
+     */
+    public Mono<Path> getResult(String jobId) {
+        return Mono.fromCallable(() -> {
+            Job job = find(jobId);
+            if (job.status == ReportJob.StatusEnum.FAILED) {
+                throw new RuntimeException("Report job failed");
+            }
+            if (job.status != ReportJob.StatusEnum.DONE) {
+                throw new RuntimeException("Report job is not finished");
+            }
+            return fileStore.pathOf(job.id);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.reports.jobs.cleanup-interval:PT5M}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            fileStore.delete(job.id);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+
+    private Job enqueue(Key key) {
+        Job[] created = new Job[1];
+        Job job = activeJobs.computeIfAbsent(key, k -> {
+            created[0] = new Job(UUID.randomUUID().toString(), k);
+            jobs.put(created[0].id, created[0]);
+            return created[0];
+        });
+        if (job != created[0]) {
+            return job;
+        }
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            // Callers that joined in the meantime see the job as failed.
+            job.finish(ReportJob.StatusEnum.FAILED, "Report job queue is full");
+            activeJobs.remove(key, job);
+            throw new RuntimeException("Report job queue is full");
+        }
+        return job;
+    }
+
+    private void run(Job job) {
+        job.status = ReportJob.StatusEnum.RUNNING;
+        try {
+            fileStore.write(job.id, json -> reportService.writeAccountStatement(
+                    job.key.clientId(), job.key.startDate(), job.key.endDate(), json));
+            job.finish(ReportJob.StatusEnum.DONE, null);
+        } catch (RuntimeException e) {
+            System.out.println("Report job " + job.id + " failed: " + e.getMessage());
+            job.finish(ReportJob.StatusEnum.FAILED, e.getMessage());
+        } finally {
+            activeJobs.remove(job.key, job);
+        }
+    }
+
+    private Job find(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Report job not found");
+        }
+        return job;
+    }
+
+    private ReportJob toReportJob(Job job) {
+        ReportJob reportJob = new ReportJob();
+        reportJob.setJobId(job.id);
+        reportJob.setStatus(job.status);
+        reportJob.setClientId(job.key.clientId());
+        reportJob.setStartDate(job.key.startDate());
+        reportJob.setEndDate(job.key.endDate());
+        reportJob.setError(job.error);
+        return reportJob;
+    }
+
+    private record Key(Long clientId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final Key key;
+        private volatile ReportJob.StatusEnum status = ReportJob.StatusEnum.PENDING;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private Job(String id, Key key) {
+            this.id = id;
+            this.key = key;
+        }
+
+        private void finish(ReportJob.StatusEnum status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+    }
+}
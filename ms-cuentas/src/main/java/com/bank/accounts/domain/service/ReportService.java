@@ -1,10 +1,29 @@
 package com.bank.accounts.domain.service;
 
+import com.bank.accounts.model.dto.AccountStatementLine;
 import com.bank.accounts.model.dto.AccountStatementReport;
+import com.bank.accounts.model.dto.ActivitySummaryReport;
+import com.fasterxml.jackson.core.JsonGenerator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
 public interface ReportService {
     Mono<AccountStatementReport> getAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate);
+    Mono<AccountStatementReport> getAccountStatementPage(Long clientId, LocalDate startDate, LocalDate endDate,
+                                                         String cursor, Integer limit);
+    Flux<AccountStatementLine> streamAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Writes the statement as JSON to {@code json}, in the same shape as
+     * {@link #getAccountStatement}. Blocks the calling thread; meant for report job workers.
+     */
+    void writeAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate, JsonGenerator json) throws IOException;
+
+    /**
+     * Per-account totals for each {@code period} (DAY, WEEK or MONTH) of the range.
+     */
+    Mono<ActivitySummaryReport> getActivitySummary(Long clientId, LocalDate startDate, LocalDate endDate, String period);
 }
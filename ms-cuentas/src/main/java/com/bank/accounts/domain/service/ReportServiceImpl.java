@@ -2,19 +2,36 @@ package com.bank.accounts.domain.service;
 
 import com.bank.accounts.domain.model.Account;
 import com.bank.accounts.domain.model.CustomerReplica;
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.domain.model.Movement;
 import com.bank.accounts.domain.repository.AccountRepository;
 import com.bank.accounts.domain.repository.CustomerReplicaRepository;
+import com.bank.accounts.domain.repository.DailyBalanceRepository;
+import com.bank.accounts.domain.repository.DailyBalanceRepository.StatementBalance;
 import com.bank.accounts.domain.repository.MovementRepository;
+import com.bank.accounts.domain.repository.MovementRepository.PeriodSummary;
 import com.bank.accounts.model.dto.*;
+import com.fasterxml.jackson.core.JsonGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,59 +40,342 @@ public class ReportServiceImpl implements ReportService {
 
     private final AccountRepository accountRepository;
     private final MovementRepository movementRepository;
+    private final DailyBalanceRepository dailyBalanceRepository;
     private final CustomerReplicaRepository customerReplicaRepository;
+    private final AccountBalances accountBalances;
+    private final ReportCache reportCache;
+    private final Scheduler blockingScheduler;
+
+    @Value("${accounts.reports.stream.page-size:500}")
+    private final int streamPageSize;
+
+    @Value("${accounts.pagination.max-limit:1000}")
+    private final int maxPageSize;
 
     @Override
     public Mono<AccountStatementReport> getAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate) {
+        return reportCache.get(clientId, startDate, endDate, () -> buildAccountStatement(clientId, startDate, endDate));
+    }
+
+    private Mono<AccountStatementReport> buildAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate) {
         return Mono.fromCallable(() -> {
                     CustomerReplica customer = customerReplicaRepository.findById(clientId)
                             .orElseThrow(() -> new RuntimeException("Customer replica not found"));
 
-                    AccountStatementReport report = new AccountStatementReport();
-                    report.setClientId(customer.getCustomerId());
-                    report.setClientName(customer.getName());
+                    var accounts = accountRepository.findByClientId(clientId);
+                    if (accounts.isEmpty()) {
+                        throw new RuntimeException("Client has no accounts");
+                    }
+
+                    // One query for the movements of every account, grouped in a single pass.
+                    var movements = movementRepository.findByAccountIdInAndDateBetweenOrderByAccountIdAscDateAscMovementIdAsc(
+                            accounts.stream().map(Account::getAccountId).toList(),
+                            LocalDateTime.of(startDate, LocalTime.MIN),
+                            LocalDateTime.of(endDate, LocalTime.MAX));
+                    return toReport(customer, accounts, movements, startDate, endDate);
+                }).subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * One page of the statement: every account, but only the next {@code limit} movements in
+     * {@code (accountId, date, movementId)} order after the cursor. The page is found by seeking on
+     * that position, so later pages cost the same as the first one. Pages are not cached.
+     */
+    @Override
+    public Mono<AccountStatementReport> getAccountStatementPage(Long clientId, LocalDate startDate, LocalDate endDate,
+                                                                String cursor, Integer limit) {
+        LocalDateTime start = LocalDateTime.of(startDate, LocalTime.MIN);
+        LocalDateTime end = LocalDateTime.of(endDate, LocalTime.MAX);
+        return Mono.fromCallable(() -> {
+                    int size = PageLimits.resolve(limit, maxPageSize);
+                    StatementCursor after = cursor != null
+                            ? StatementCursor.decode(cursor)
+                            : new StatementCursor(Long.MIN_VALUE, start, Long.MIN_VALUE);
+
+                    CustomerReplica customer = customerReplicaRepository.findById(clientId)
+                            .orElseThrow(() -> new RuntimeException("Customer replica not found"));
 
                     var accounts = accountRepository.findByClientId(clientId);
                     if (accounts.isEmpty()) {
                         throw new RuntimeException("Client has no accounts");
                     }
 
-                    var accountDetails = accounts.stream()
-                            .map(account -> toAccountReportDetails(account, startDate, endDate))
-                            .collect(Collectors.toList());
+                    // One row past the page tells whether another page follows.
+                    var movements = movementRepository.findStatementPageAfter(
+                            accounts.stream().map(Account::getAccountId).toList(), start, end,
+                            after.accountId(), after.date(), after.movementId(), Limit.of(size + 1));
+                    boolean hasMore = movements.size() > size;
+                    var page = hasMore ? movements.subList(0, size) : movements;
 
-                    report.setAccounts(accountDetails);
+                    AccountStatementReport report = toReport(customer, accounts, page, startDate, endDate);
+                    if (hasMore) {
+                        report.setNextCursor(StatementCursor.after(page.get(size - 1)).encode());
+                    }
                     return report;
-                }).subscribeOn(Schedulers.boundedElastic());
+                }).subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Emits the statement line by line. Only the client's accounts are loaded up front; movements
+     * are read one page of {@code accounts.reports.stream.page-size} at a time, and the next page
+     * is fetched only once the client has consumed the previous one.
+     */
+    @Override
+    public Flux<AccountStatementLine> streamAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate) {
+        LocalDateTime start = LocalDateTime.of(startDate, LocalTime.MIN);
+        LocalDateTime end = LocalDateTime.of(endDate, LocalTime.MAX);
+        return Mono.fromCallable(() -> {
+                    CustomerReplica customer = customerReplicaRepository.findById(clientId)
+                            .orElseThrow(() -> new RuntimeException("Customer replica not found"));
+
+                    var accounts = accountRepository.findByClientId(clientId);
+                    if (accounts.isEmpty()) {
+                        throw new RuntimeException("Client has no accounts");
+                    }
+
+                    AccountStatementLine clientLine = new AccountStatementLine();
+                    clientLine.setType(AccountStatementLine.TypeEnum.CLIENT);
+                    clientLine.setClientId(customer.getCustomerId());
+                    clientLine.setClientName(customer.getName());
+
+                    Map<Long, Long> currentBalances = accountBalances.balancesOf(accounts);
+                    List<Tuple2<Account, AccountStatementLine>> accountLines = accounts.stream()
+                            .map(account -> Tuples.of(account,
+                                    toAccountLine(account, currentBalances.get(account.getAccountId()))))
+                            .toList();
+                    return Tuples.of(clientLine, accountLines);
+                })
+                .subscribeOn(blockingScheduler)
+                .flatMapMany(header -> Flux.concat(
+                        Mono.just(header.getT1()),
+                        Flux.fromIterable(header.getT2())
+                                .concatMap(accountLine -> Flux.concat(
+                                        Mono.just(accountLine.getT2()),
+                                        movementsOf(accountLine.getT1(), start, end)
+                                                .map(movement -> toMovementLine(accountLine.getT1(), movement))))));
+    }
+
+    /**
+     * Writes the statement field by field, reading each account's movements one page of
+     * {@code accounts.reports.stream.page-size} at a time, so the statement is never held in
+     * memory as a whole however long the range.
+     */
+    @Override
+    public void writeAccountStatement(Long clientId, LocalDate startDate, LocalDate endDate, JsonGenerator json) throws IOException {
+        LocalDateTime start = LocalDateTime.of(startDate, LocalTime.MIN);
+        LocalDateTime end = LocalDateTime.of(endDate, LocalTime.MAX);
+        CustomerReplica customer = customerReplicaRepository.findById(clientId)
+                .orElseThrow(() -> new RuntimeException("Customer replica not found"));
+
+        var accounts = accountRepository.findByClientId(clientId);
+        if (accounts.isEmpty()) {
+            throw new RuntimeException("Client has no accounts");
+        }
+        Map<Long, StatementBalance> balances = statementBalances(accounts, startDate, endDate);
+        Map<Long, Long> currentBalances = accountBalances.balancesOf(accounts);
+
+        json.writeStartObject();
+        json.writeStringField("clientName", customer.getName());
+        json.writeObjectField("clientId", customer.getCustomerId());
+        json.writeArrayFieldStart("accounts");
+        for (Account account : accounts) {
+            long currentBalance = currentBalances.get(account.getAccountId());
+            AccountReportDetails details = toAccountReportDetails(account, currentBalance, List.of());
+            applyBalances(details, currentBalance, balances.get(account.getAccountId()));
+            json.writeStartObject();
+            json.writeStringField("accountNumber", details.getAccountNumber());
+            json.writeStringField("accountType", details.getAccountType());
+            json.writeObjectField("initialBalance", details.getInitialBalance());
+            json.writeObjectField("status", details.getStatus());
+            json.writeObjectField("openingBalance", details.getOpeningBalance());
+            json.writeObjectField("closingBalance", details.getClosingBalance());
+            json.writeObjectField("totalDebits", details.getTotalDebits());
+            json.writeObjectField("totalCredits", details.getTotalCredits());
+            json.writeArrayFieldStart("movements");
+            LocalDateTime afterDate = start;
+            long afterMovementId = Long.MIN_VALUE;
+            List<Movement> page;
+            do {
+                page = movementRepository.findPageAfter(account.getAccountId(), afterDate, afterMovementId, end,
+                        Limit.of(streamPageSize));
+                for (Movement movement : page) {
+                    json.writeObject(toMovementReportDetails(movement));
+                }
+                if (!page.isEmpty()) {
+                    afterDate = page.get(page.size() - 1).getDate();
+                    afterMovementId = page.get(page.size() - 1).getMovementId();
+                }
+            } while (page.size() == streamPageSize);
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    @Override
+    public Mono<ActivitySummaryReport> getActivitySummary(Long clientId, LocalDate startDate, LocalDate endDate, String period) {
+        return Mono.fromCallable(() -> {
+            String resolvedPeriod = period == null ? "MONTH" : period.toUpperCase();
+            var accounts = accountRepository.findByClientId(clientId);
+            if (accounts.isEmpty()) {
+                throw new RuntimeException("Client has no accounts");
+            }
+            List<Long> accountIds = accounts.stream().map(Account::getAccountId).toList();
+            LocalDateTime start = LocalDateTime.of(startDate, LocalTime.MIN);
+            LocalDateTime end = LocalDateTime.of(endDate, LocalTime.MAX);
+            List<PeriodSummary> summaries = switch (resolvedPeriod) {
+                case "DAY" -> movementRepository.summarizeByDay(accountIds, start, end);
+                case "WEEK" -> movementRepository.summarizeByWeek(accountIds, start, end);
+                case "MONTH" -> movementRepository.summarizeByMonth(accountIds, start, end);
+                default -> throw new RuntimeException("Invalid summary period: " + period);
+            };
+
+            Map<Long, List<PeriodActivity>> periodsByAccount = new HashMap<>();
+            summaries.forEach(summary -> periodsByAccount
+                    .computeIfAbsent(summary.getAccountId(), accountId -> new ArrayList<>())
+                    .add(toPeriodActivity(summary)));
+
+            ActivitySummaryReport report = new ActivitySummaryReport();
+            report.setClientId(clientId);
+            report.setPeriod(resolvedPeriod);
+            report.setStartDate(startDate);
+            report.setEndDate(endDate);
+            report.setAccounts(accounts.stream()
+                    .map(account -> {
+                        AccountActivitySummary summary = new AccountActivitySummary();
+                        summary.setAccountNumber(account.getAccountNumber());
+                        summary.setPeriods(periodsByAccount.getOrDefault(account.getAccountId(), new ArrayList<>()));
+                        return summary;
+                    })
+                    .collect(Collectors.toList()));
+            return report;
+        }).subscribeOn(blockingScheduler);
+    }
+
+    private Flux<Movement> movementsOf(Account account, LocalDateTime start, LocalDateTime end) {
+        return movementPage(account.getAccountId(), start, Long.MIN_VALUE, end)
+                .expand(page -> {
+                    if (page.size() < streamPageSize) {
+                        return Mono.empty();
+                    }
+                    Movement last = page.get(page.size() - 1);
+                    return movementPage(account.getAccountId(), last.getDate(), last.getMovementId(), end);
+                })
+                // Ask for one page at a time; the default prefetch would read up to 256 pages ahead
+                // of a slow client.
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    private Mono<List<Movement>> movementPage(Long accountId, LocalDateTime afterDate, Long afterMovementId, LocalDateTime end) {
+        return Mono.fromCallable(() -> movementRepository.findPageAfter(
+                        accountId, afterDate, afterMovementId, end, Limit.of(streamPageSize)))
+                .subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Expects {@code movements} ordered by account, as the repository returns them. Opening
+     * balance and totals cover the whole range, even when {@code movements} is a single page.
+     */
+    private AccountStatementReport toReport(CustomerReplica customer, List<Account> accounts, List<Movement> movements,
+                                            LocalDate startDate, LocalDate endDate) {
+        AccountStatementReport report = new AccountStatementReport();
+        report.setClientId(customer.getCustomerId());
+        report.setClientName(customer.getName());
+
+        Map<Long, List<MovementReportDetails>> movementsByAccount = new HashMap<>();
+        movements.forEach(movement -> movementsByAccount
+                .computeIfAbsent(movement.getAccountId(), accountId -> new ArrayList<>())
+                .add(toMovementReportDetails(movement)));
+
+        Map<Long, StatementBalance> balances = statementBalances(accounts, startDate, endDate);
+        Map<Long, Long> currentBalances = accountBalances.balancesOf(accounts);
+
+        report.setAccounts(accounts.stream()
+                .map(account -> {
+                    long currentBalance = currentBalances.get(account.getAccountId());
+                    AccountReportDetails details = toAccountReportDetails(account, currentBalance,
+                            movementsByAccount.getOrDefault(account.getAccountId(), new ArrayList<>()));
+                    applyBalances(details, currentBalance, balances.get(account.getAccountId()));
+                    return details;
+                })
+                .collect(Collectors.toList()));
+        return report;
+    }
+
+    private Map<Long, StatementBalance> statementBalances(List<Account> accounts, LocalDate startDate, LocalDate endDate) {
+        return dailyBalanceRepository.findStatementBalances(
+                        accounts.stream().map(Account::getAccountId).toList(), startDate, endDate)
+                .stream()
+                .collect(Collectors.toMap(StatementBalance::getAccountId, Function.identity()));
+    }
+
+    /**
+     * An account without checkpoints has no opening balance in {@code balance}: it has not moved
+     * since daily balances were recorded, so its current balance, read for its balance mode, is
+     * also its opening balance.
+     */
+    private void applyBalances(AccountReportDetails details, long currentBalance, StatementBalance balance) {
+        long opening = balance != null && balance.getOpeningBalance() != null
+                ? Money.toMinorUnits(balance.getOpeningBalance())
+                : currentBalance;
+        long debits = balance != null ? Money.toMinorUnits(balance.getTotalDebits()) : 0;
+        long credits = balance != null ? Money.toMinorUnits(balance.getTotalCredits()) : 0;
+        details.setOpeningBalance(Money.toDouble(opening));
+        details.setTotalDebits(Money.toDouble(debits));
+        details.setTotalCredits(Money.toDouble(credits));
+        details.setClosingBalance(Money.toDouble(opening + credits - debits));
+    }
+
+    private AccountStatementLine toAccountLine(Account account, long currentBalance) {
+        AccountStatementLine line = new AccountStatementLine();
+        line.setType(AccountStatementLine.TypeEnum.ACCOUNT);
+        line.setAccountNumber(account.getAccountNumber());
+        line.setAccountType(account.getAccountType());
+        line.setInitialBalance(Money.toDouble(currentBalance));
+        line.setStatus(account.isStatus());
+        return line;
+    }
+
+    private AccountStatementLine toMovementLine(Account account, Movement movement) {
+        AccountStatementLine line = new AccountStatementLine();
+        line.setType(AccountStatementLine.TypeEnum.MOVEMENT);
+        line.setAccountNumber(account.getAccountNumber());
+        line.setDate(movement.getDate().atZone(ZoneId.systemDefault()).toOffsetDateTime());
+        line.setMovementType(movement.getMovementType());
+        line.setValue(Money.toDouble(movement.getValue()));
+        line.setBalance(Money.toDouble(movement.getBalance()));
+        return line;
     }
 
-    private AccountReportDetails toAccountReportDetails(Account account, LocalDate startDate, LocalDate endDate) {
+    private AccountReportDetails toAccountReportDetails(Account account, long currentBalance,
+                                                        List<MovementReportDetails> movements) {
         AccountReportDetails details = new AccountReportDetails();
         details.setAccountNumber(account.getAccountNumber());
         details.setAccountType(account.getAccountType());
-        details.setInitialBalance(account.getInitialBalance());
+        details.setInitialBalance(Money.toDouble(currentBalance));
         details.setStatus(account.isStatus());
-
-        var movements = movementRepository.findByAccountIdAndDateBetween(
-                account.getAccountId(),
-                LocalDateTime.of(startDate, LocalTime.MIN),
-                LocalDateTime.of(endDate, LocalTime.MAX)
-        );
-
-        var movementDetails = movements.stream()
-                .map(this::toMovementReportDetails)
-                .collect(Collectors.toList());
-
-        details.setMovements(movementDetails);
+        details.setMovements(movements);
         return details;
     }
 
-    private MovementReportDetails toMovementReportDetails(com.bank.accounts.domain.model.Movement movement) {
+    private PeriodActivity toPeriodActivity(PeriodSummary summary) {
+        PeriodActivity activity = new PeriodActivity();
+        activity.setPeriodStart(summary.getPeriodStart());
+        activity.setMovementCount(summary.getMovementCount());
+        activity.setTotalDebits(Money.toDouble(Money.toMinorUnits(summary.getTotalDebits())));
+        activity.setTotalCredits(Money.toDouble(Money.toMinorUnits(summary.getTotalCredits())));
+        activity.setMinBalance(Money.toDouble(Money.toMinorUnits(summary.getMinBalance())));
+        activity.setMaxBalance(Money.toDouble(Money.toMinorUnits(summary.getMaxBalance())));
+        return activity;
+    }
+
+    private MovementReportDetails toMovementReportDetails(Movement movement) {
         MovementReportDetails details = new MovementReportDetails();
         details.setDate(movement.getDate().atZone(ZoneId.systemDefault()).toOffsetDateTime());
         details.setMovementType(movement.getMovementType());
-        details.setValue(movement.getValue());
-        details.setBalance(movement.getBalance());
+        details.setValue(Money.toDouble(movement.getValue()));
+        details.setBalance(Money.toDouble(movement.getBalance()));
         return details;
     }
 }
@@ -0,0 +1,126 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.AccountBalanceSlot;
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.domain.repository.AccountBalanceSlotRepository;
+import com.bank.accounts.domain.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Splits the balance of hot accounts ({@code accounts.balance.sharding.accounts}) across
+ * {@code accounts.balance.sharding.slots} sub-balances so concurrent credits do not queue on the
+ * account row: a credit adds to a random slot, a debit takes from the richest slot that covers it.
+ * Only a debit that no single slot covers locks the account and all of its slots, checks the
+ * aggregate and spreads what is left evenly across the slots again.
+ *
+ * <p>The balance of a sharded account is its {@code initialBalance} plus the sum of its slots;
+ * {@link #balanceOf(Account)} reads it in one statement.
+ *
+ * <p>Every movement locks slots first and the account row last, and holds them until commit.
+ * The aggregate a movement returns is read under the account row lock, so the aggregates are
+ * taken in commit order: each movement's balance is the previous one plus or minus its amount,
+ * and the movement is dated under the same lock. Concurrent slot updates still proceed side by
+ * side; only the tail from the aggregate read to the commit is serialized per account.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardedBalances {
+
+    private final AccountBalanceSlotRepository slotRepository;
+    private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+
+    @Value("${accounts.balance.sharding.accounts:}")
+    private final Set<String> shardedAccounts;
+
+    @Value("${accounts.balance.sharding.slots:8}")
+    private final int slots;
+
+    public boolean isSharded(String accountNumber) {
+        return accountNumber != null && shardedAccounts.contains(accountNumber);
+    }
+
+    /**
+     * The exact balance of the account, aggregated across its slots when it is sharded.
+     */
+    public long balanceOf(Account account) {
+        if (!isSharded(account.getAccountNumber())) {
+            return account.getInitialBalance();
+        }
+        return aggregateBalance(account.getAccountId());
+    }
+
+    /**
+     * Applies a movement to a sharded account and returns the aggregate balance after it. Must run
+     * inside a transaction.
+     */
+    public long apply(Account account, String movementType, long value) {
+        Long accountId = account.getAccountId();
+        if ("Credito".equalsIgnoreCase(movementType)) {
+            slotRepository.addToSlot(accountId, ThreadLocalRandom.current().nextInt(slots), Money.toDecimal(value));
+            return lockedAggregateBalance(accountId);
+        }
+        if (!"Debito".equalsIgnoreCase(movementType)) {
+            throw new IllegalArgumentException("Invalid movement type: " + movementType);
+        }
+        if (slotRepository.takeFromRichestSlot(accountId, Money.toDecimal(value)) == 1) {
+            return lockedAggregateBalance(accountId);
+        }
+        return rebalanceAndDebit(accountId, value);
+    }
+
+    /**
+     * Locks the account row until commit, after this transaction's slot update, and reads the
+     * aggregate: it holds every movement committed before and none committed after.
+     */
+    private long lockedAggregateBalance(Long accountId) {
+        accountRepository.findByIdForUpdate(accountId).orElseThrow(() -> new RuntimeException("Account not found"));
+        return aggregateBalance(accountId);
+    }
+
+    private long rebalanceAndDebit(Long accountId, long value) {
+        // Create any missing slot first so a concurrent credit cannot insert one behind the lock,
+        // then lock the slots before the account row, in the order every other movement does.
+        slotRepository.createSlots(accountId, slots);
+        List<AccountBalanceSlot> accountSlots = slotRepository.findAllForUpdate(accountId);
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+
+        long total = account.getInitialBalance();
+        for (AccountBalanceSlot slot : accountSlots) {
+            total = Math.addExact(total, slot.getBalance());
+        }
+        long remaining = Math.subtractExact(total, value);
+        if (remaining < 0) {
+            throw new RuntimeException("Saldo no disponible");
+        }
+
+        long share = remaining / accountSlots.size();
+        for (AccountBalanceSlot slot : accountSlots) {
+            slot.setBalance(share);
+        }
+        accountSlots.get(0).setBalance(share + remaining % accountSlots.size());
+        slotRepository.saveAll(accountSlots);
+
+        account.setInitialBalance(0);
+        accountRepository.save(account);
+        accountCache.putAfterCommit(account);
+        return remaining;
+    }
+
+    private long aggregateBalance(Long accountId) {
+        BigDecimal balance = slotRepository.aggregateBalance(accountId);
+        if (balance == null) {
+            throw new RuntimeException("Account not found");
+        }
+        return Money.toMinorUnits(balance);
+    }
+}
@@ -0,0 +1,36 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.domain.model.Movement;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last movement on a statement page. Clients get it as an opaque token and send
+ * it back unchanged to fetch the next page.
+ */
+record StatementCursor(long accountId, LocalDateTime date, long movementId) {
+
+    static StatementCursor after(Movement movement) {
+        return new StatementCursor(movement.getAccountId(), movement.getDate(), movement.getMovementId());
+    }
+
+    static StatementCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected three cursor fields");
+            }
+            return new StatementCursor(Long.parseLong(parts[0]), LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid page cursor");
+        }
+    }
+
+    String encode() {
+        String raw = accountId + "|" + date + "|" + movementId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,9 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.model.dto.TransferRequest;
+import com.bank.accounts.model.dto.TransferResponse;
+import reactor.core.publisher.Mono;
+
+public interface TransferService {
+    Mono<TransferResponse> createTransfer(TransferRequest transferRequest);
+}
@@ -0,0 +1,52 @@
+package com.bank.accounts.domain.service;
+
+import com.bank.accounts.model.dto.MovementRequest;
+import com.bank.accounts.model.dto.TransferRequest;
+import com.bank.accounts.model.dto.TransferResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A transfer is a debit on the source account and a credit on the target account applied as one
+ * unit by the active {@link MovementService}, which also decides the order accounts are locked in.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferServiceImpl implements TransferService {
+
+    private final MovementService movementService;
+
+    @Override
+    public Mono<TransferResponse> createTransfer(TransferRequest transferRequest) {
+        if (Objects.equals(transferRequest.getSourceAccountNumber(), transferRequest.getTargetAccountNumber())) {
+            return Mono.error(new RuntimeException("Source and target accounts must be different"));
+        }
+        MovementRequest debit = movement(transferRequest.getSourceAccountNumber(),
+                MovementRequest.MovementTypeEnum.DEBITO, transferRequest.getValue());
+        MovementRequest credit = movement(transferRequest.getTargetAccountNumber(),
+                MovementRequest.MovementTypeEnum.CREDITO, transferRequest.getValue());
+
+        return movementService.createMovementsAtomically(List.of(debit, credit))
+                .map(movements -> {
+                    TransferResponse response = new TransferResponse();
+                    response.setSourceAccountNumber(transferRequest.getSourceAccountNumber());
+                    response.setTargetAccountNumber(transferRequest.getTargetAccountNumber());
+                    response.setValue(transferRequest.getValue());
+                    response.setDebit(movements.get(0));
+                    response.setCredit(movements.get(1));
+                    return response;
+                });
+    }
+
+    private MovementRequest movement(String accountNumber, MovementRequest.MovementTypeEnum movementType, Double value) {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber(accountNumber);
+        request.setMovementType(movementType);
+        request.setValue(value);
+        return request;
+    }
+}
@@ -1,5 +1,6 @@
 package com.bank.accounts.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,6 +31,15 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public Mono<ResponseEntity<Map<String, String>>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        System.out.println("Optimistic Lock Conflict: " + ex.getMessage());
+        return Mono.just(
+                ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Account was updated concurrently, please retry"))
+        );
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public Mono<ResponseEntity<Map<String, String>>> handleRuntimeException(RuntimeException ex) {
         System.out.println("Caught RuntimeException: " + ex.getClass().getName() + " - " + ex.getMessage());
@@ -38,7 +48,20 @@ public class GlobalExceptionHandler {
         String message = ex.getMessage();
 
         if (message != null) {
-            if (message.contains("Saldo no disponible") || message.contains("must be greater than zero")) {
+            if (message.contains("Report job not found")) {
+                status = HttpStatus.NOT_FOUND;
+            } else if (message.contains("Report job is not finished") || message.contains("Report job failed")
+                    || message.contains("Atomic movements are not available")) {
+                status = HttpStatus.CONFLICT;
+            } else if (message.contains("Idempotency key was already used")) {
+                status = HttpStatus.UNPROCESSABLE_ENTITY;
+            } else if (message.contains("Report job queue is full")) {
+                status = HttpStatus.SERVICE_UNAVAILABLE;
+            } else if (message.contains("Saldo no disponible") || message.contains("must be greater than zero")
+                    || message.contains("at most two decimal places")
+                    || message.contains("Source and target accounts must be different")
+                    || message.contains("Invalid page cursor")
+                    || message.contains("Invalid summary period")) {
                 status = HttpStatus.BAD_REQUEST;
             } else if (message.contains("Account not found") || 
                        message.contains("Client has no accounts") || 
@@ -0,0 +1,3 @@
+-- Versión del último evento aplicado a cada réplica. Las réplicas existentes quedan en -1 para
+-- que acepten el siguiente evento, tenga o no versión.
+ALTER TABLE customer_replica ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT -1;
@@ -0,0 +1,2 @@
+-- Huella de la solicitud que usó cada clave de idempotencia; nula en las claves anteriores
+ALTER TABLE idempotency_record ADD COLUMN IF NOT EXISTS request_hash BIGINT;
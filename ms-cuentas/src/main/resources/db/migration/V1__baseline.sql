@@ -0,0 +1,29 @@
+-- Esquema inicial de banking_accounts, tal como lo creaba ddl-auto antes de usar Flyway. En bases
+-- existentes Flyway lo marca como aplicado (spring.flyway.baseline-on-migrate) y solo ejecuta las
+-- migraciones posteriores, escritas para poder aplicarse aunque ddl-auto ya hubiera creado parte
+-- de sus objetos.
+
+CREATE TABLE IF NOT EXISTS account (
+    account_id BIGSERIAL PRIMARY KEY,
+    account_number VARCHAR(50) NOT NULL UNIQUE,
+    account_type VARCHAR(20) NOT NULL,
+    initial_balance DECIMAL(15, 2) NOT NULL,
+    status BOOLEAN NOT NULL,
+    client_id BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS movement (
+    movement_id BIGSERIAL PRIMARY KEY,
+    date TIMESTAMP NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    value DECIMAL(15, 2) NOT NULL,
+    balance DECIMAL(15, 2) NOT NULL,
+    account_id BIGINT NOT NULL,
+    CONSTRAINT fk_movement_account FOREIGN KEY (account_id) REFERENCES account(account_id)
+);
+
+-- Réplica de clientes alimentada por los eventos de ms-clientes
+CREATE TABLE IF NOT EXISTS customer_replica (
+    customer_id BIGINT PRIMARY KEY,
+    name VARCHAR(255)
+);
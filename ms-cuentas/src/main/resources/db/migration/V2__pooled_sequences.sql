@@ -0,0 +1,17 @@
+-- Identificadores asignados por Hibernate en bloques de 50 (pooled) para permitir inserts por lotes
+CREATE SEQUENCE IF NOT EXISTS account_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS movement_seq START WITH 1 INCREMENT BY 50;
+
+-- Las secuencias continúan después de los identificadores ya asignados. Hibernate reserva el
+-- bloque que termina en el valor devuelto, así que el margen de 50 evita repetir el último id.
+SELECT setval('account_seq', COALESCE(MAX(account_id), 0) + 50) FROM account;
+SELECT setval('movement_seq', COALESCE(MAX(movement_id), 0) + 50) FROM movement;
+
+-- Los identificadores ya no los genera la base de datos: se eliminan los valores por defecto de
+-- BIGSERIAL (y la identidad, si la tabla la creó ddl-auto) para que nadie siga usándolos.
+ALTER TABLE account ALTER COLUMN account_id DROP IDENTITY IF EXISTS;
+ALTER TABLE account ALTER COLUMN account_id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS account_account_id_seq;
+ALTER TABLE movement ALTER COLUMN movement_id DROP IDENTITY IF EXISTS;
+ALTER TABLE movement ALTER COLUMN movement_id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS movement_movement_id_seq;
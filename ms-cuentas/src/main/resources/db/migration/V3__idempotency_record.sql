@@ -0,0 +1,6 @@
+-- Claves de idempotencia persistentes (opcional, accounts.idempotency.persistent=true)
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    idempotency_key VARCHAR(128) PRIMARY KEY,
+    movement_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,2 @@
+-- Versión para el bloqueo optimista de las cuentas
+ALTER TABLE account ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
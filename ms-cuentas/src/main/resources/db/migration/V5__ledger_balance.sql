@@ -0,0 +1,19 @@
+-- Posición de cada movimiento en el libro mayor de su cuenta (accounts.balance.mode=ledger)
+ALTER TABLE movement ADD COLUMN IF NOT EXISTS ledger_sequence BIGINT;
+
+-- Una tabla particionada (BaseDatos-particionado.sql) no admite esta unicidad sin la fecha; ese
+-- esquema no es compatible con el modo libro mayor y se deja sin ella.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'movement'::regclass) THEN
+        CREATE UNIQUE INDEX IF NOT EXISTS uk_movement_ledger_sequence ON movement (account_id, ledger_sequence);
+    END IF;
+END $$;
+
+-- Saldos consolidados en modo libro mayor
+CREATE TABLE IF NOT EXISTS balance_snapshot (
+    account_id BIGINT PRIMARY KEY,
+    balance DECIMAL(15, 2) NOT NULL,
+    ledger_sequence BIGINT NOT NULL,
+    taken_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Posición aplicada del journal local de movimientos (accounts.movements.durability=journal)
+CREATE TABLE IF NOT EXISTS journal_checkpoint (
+    name VARCHAR(64) PRIMARY KEY,
+    position BIGINT NOT NULL
+);
@@ -0,0 +1,8 @@
+-- Sub-saldos de cuentas de alto volumen (accounts.balance.sharding.accounts)
+CREATE TABLE IF NOT EXISTS account_balance_slot (
+    account_id BIGINT NOT NULL,
+    slot INT NOT NULL,
+    balance DECIMAL(15, 2) NOT NULL,
+    PRIMARY KEY (account_id, slot),
+    CONSTRAINT fk_balance_slot_account FOREIGN KEY (account_id) REFERENCES account(account_id)
+);
@@ -0,0 +1,9 @@
+-- Cuentas de un cliente (findByClientId): reportes y listados por cliente
+CREATE INDEX IF NOT EXISTS idx_account_client_id ON account (client_id);
+
+-- Movimientos por cuenta y rango de fechas (findByAccountIdAndDateBetween y reportes).
+-- El orden (account_id, date, movement_id) coincide con el de los reportes y la paginación por
+-- cursor, y las columnas incluidas permiten resolverlos solo con el índice.
+CREATE INDEX IF NOT EXISTS idx_movement_account_date
+    ON movement (account_id, date, movement_id)
+    INCLUDE (movement_type, value, balance, ledger_sequence);
@@ -0,0 +1,33 @@
+-- Saldo al cierre de cada día con movimientos y totales de débitos y créditos del día; los
+-- reportes obtienen de aquí el saldo inicial sin recorrer el historial de movimientos
+CREATE TABLE IF NOT EXISTS daily_balance (
+    account_id BIGINT NOT NULL,
+    balance_date DATE NOT NULL,
+    closing_balance DECIMAL(15, 2) NOT NULL,
+    total_debits DECIMAL(15, 2) NOT NULL,
+    total_credits DECIMAL(15, 2) NOT NULL,
+    last_movement_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (account_id, balance_date),
+    CONSTRAINT fk_daily_balance_account FOREIGN KEY (account_id) REFERENCES account(account_id)
+);
+
+-- Puntos de control para los movimientos ya registrados
+INSERT INTO daily_balance (account_id, balance_date, closing_balance, total_debits, total_credits, last_movement_at)
+SELECT totals.account_id, totals.balance_date, last_movement.balance,
+       totals.total_debits, totals.total_credits, totals.last_movement_at
+FROM (
+    SELECT account_id, CAST(date AS DATE) AS balance_date,
+           SUM(CASE WHEN movement_type = 'Debito' THEN value ELSE 0 END) AS total_debits,
+           SUM(CASE WHEN movement_type = 'Credito' THEN value ELSE 0 END) AS total_credits,
+           MAX(date) AS last_movement_at
+    FROM movement
+    GROUP BY account_id, CAST(date AS DATE)
+) totals
+JOIN LATERAL (
+    SELECT m.balance FROM movement m
+    WHERE m.account_id = totals.account_id
+      AND m.date >= totals.balance_date AND m.date < totals.balance_date + 1
+    ORDER BY m.date DESC, m.movement_id DESC
+    LIMIT 1
+) last_movement ON TRUE
+ON CONFLICT (account_id, balance_date) DO NOTHING;
@@ -2,13 +2,17 @@ package com.bank.accounts.integration;
 
 import com.bank.accounts.controller.AccountController;
 import com.bank.accounts.controller.MovementController;
+import com.bank.accounts.controller.TransferController;
 import com.bank.accounts.domain.service.AccountService;
 import com.bank.accounts.domain.service.MovementService;
+import com.bank.accounts.domain.service.TransferService;
 import com.bank.accounts.exception.GlobalExceptionHandler;
 import com.bank.accounts.model.dto.AccountRequest;
 import com.bank.accounts.model.dto.AccountResponse;
 import com.bank.accounts.model.dto.MovementRequest;
 import com.bank.accounts.model.dto.MovementResponse;
+import com.bank.accounts.model.dto.TransferRequest;
+import com.bank.accounts.model.dto.TransferResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
@@ -19,10 +23,12 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
-@WebFluxTest(controllers = {AccountController.class, MovementController.class})
-@ContextConfiguration(classes = {AccountController.class, MovementController.class, GlobalExceptionHandler.class})
+@WebFluxTest(controllers = {AccountController.class, MovementController.class, TransferController.class})
+@ContextConfiguration(classes = {AccountController.class, MovementController.class, TransferController.class,
+        GlobalExceptionHandler.class})
 class AccountFlowIntegrationTest {
 
     @Autowired
@@ -34,6 +40,9 @@ class AccountFlowIntegrationTest {
     @MockBean
     private MovementService movementService;
 
+    @MockBean
+    private TransferService transferService;
+
     @Test
     void createAccountAndMovements_shouldWork() {
         AccountRequest accountRequest = new AccountRequest();
@@ -63,7 +72,7 @@ class AccountFlowIntegrationTest {
         MovementResponse creditResponse = new MovementResponse();
         creditResponse.setBalance(1500.0);
 
-        when(movementService.createMovement(any(MovementRequest.class))).thenReturn(Mono.just(creditResponse));
+        when(movementService.createMovement(any(MovementRequest.class), any())).thenReturn(Mono.just(creditResponse));
 
         webTestClient.post().uri("/api/v1/movements")
                 .body(Mono.just(creditRequest), MovementRequest.class)
@@ -80,7 +89,7 @@ class AccountFlowIntegrationTest {
         debitRequest.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
         debitRequest.setValue(2000.0);
 
-        when(movementService.createMovement(any(MovementRequest.class)))
+        when(movementService.createMovement(any(MovementRequest.class), any()))
                 .thenReturn(Mono.error(new RuntimeException("Saldo no disponible")));
 
         webTestClient.post().uri("/api/v1/movements")
@@ -89,6 +98,70 @@ class AccountFlowIntegrationTest {
                 .expectStatus().isBadRequest();
     }
 
+    @Test
+    void createMovement_shouldBeUnprocessable_whenIdempotencyKeyIsReusedForADifferentMovement() {
+        MovementRequest debitRequest = new MovementRequest();
+        debitRequest.setAccountNumber("12345");
+        debitRequest.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        debitRequest.setValue(20.0);
+
+        when(movementService.createMovement(any(MovementRequest.class), eq("retry-1")))
+                .thenReturn(Mono.error(new RuntimeException("Idempotency key was already used with a different request")));
+
+        webTestClient.post().uri("/api/v1/movements")
+                .header("Idempotency-Key", "retry-1")
+                .body(Mono.just(debitRequest), MovementRequest.class)
+                .exchange()
+                .expectStatus().isEqualTo(422);
+    }
+
+    @Test
+    void createTransfer_shouldReturnBothMovements() {
+        MovementResponse debit = new MovementResponse();
+        debit.setBalance(900.0);
+        MovementResponse credit = new MovementResponse();
+        credit.setBalance(600.0);
+
+        TransferResponse transferResponse = new TransferResponse();
+        transferResponse.setSourceAccountNumber("12345");
+        transferResponse.setTargetAccountNumber("67890");
+        transferResponse.setValue(100.0);
+        transferResponse.setDebit(debit);
+        transferResponse.setCredit(credit);
+
+        when(transferService.createTransfer(any(TransferRequest.class))).thenReturn(Mono.just(transferResponse));
+
+        webTestClient.post().uri("/api/v1/transfers")
+                .body(Mono.just(transfer("12345", "67890", 100.0)), TransferRequest.class)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.debit.balance").isEqualTo(900.0)
+                .jsonPath("$.credit.balance").isEqualTo(600.0);
+    }
+
+    @Test
+    void createTransfer_shouldFail_whenSourceAndTargetAreTheSame() {
+        when(transferService.createTransfer(any(TransferRequest.class)))
+                .thenReturn(Mono.error(new RuntimeException("Source and target accounts must be different")));
+
+        webTestClient.post().uri("/api/v1/transfers")
+                .body(Mono.just(transfer("12345", "12345", 100.0)), TransferRequest.class)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void createTransfer_shouldConflict_whenMovementsAreJournaled() {
+        when(transferService.createTransfer(any(TransferRequest.class)))
+                .thenReturn(Mono.error(new RuntimeException("Atomic movements are not available with journal durability")));
+
+        webTestClient.post().uri("/api/v1/transfers")
+                .body(Mono.just(transfer("12345", "67890", 100.0)), TransferRequest.class)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
     @Test
     void createAccount_shouldFail_whenValidationFails() {
         // Enviar request vacío para provocar error de validación
@@ -133,4 +206,12 @@ class AccountFlowIntegrationTest {
                 .expectBody()
                 .jsonPath("$.error").isEqualTo("Unexpected database error");
     }
+
+    private TransferRequest transfer(String source, String target, double value) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountNumber(source);
+        request.setTargetAccountNumber(target);
+        request.setValue(value);
+        return request;
+    }
 }
@@ -3,19 +3,24 @@ package com.bank.accounts.integration;
 import com.bank.accounts.controller.ReportController;
 import com.bank.accounts.domain.service.ReportService;
 import com.bank.accounts.exception.GlobalExceptionHandler;
+import com.bank.accounts.model.dto.AccountStatementLine;
 import com.bank.accounts.model.dto.AccountStatementReport;
+import com.bank.accounts.model.dto.ActivitySummaryReport;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = ReportController.class)
@@ -49,6 +54,66 @@ class ReportControllerIntegrationTest {
                 .jsonPath("$.clientName").isEqualTo("Jose Lema");
     }
 
+    @Test
+    void getAccountStatement_shouldReturnPage_whenLimitIsGiven() {
+        AccountStatementReport report = new AccountStatementReport();
+        report.setClientName("Jose Lema");
+        report.setAccounts(Collections.emptyList());
+        report.setNextCursor("next");
+
+        when(reportService.getAccountStatementPage(any(), any(), any(), eq("abc"), eq(50))).thenReturn(Mono.just(report));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder
+                        .path("/reports")
+                        .queryParam("clientId", 1L)
+                        .queryParam("startDate", "2024-01-01")
+                        .queryParam("endDate", "2024-12-31")
+                        .queryParam("cursor", "abc")
+                        .queryParam("limit", 50)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nextCursor").isEqualTo("next");
+    }
+
+    @Test
+    void getAccountStatement_shouldReturnBadRequest_whenCursorIsInvalid() {
+        when(reportService.getAccountStatementPage(any(), any(), any(), any(), any()))
+                .thenReturn(Mono.error(new RuntimeException("Invalid page cursor")));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder
+                        .path("/reports")
+                        .queryParam("clientId", 1L)
+                        .queryParam("startDate", "2024-01-01")
+                        .queryParam("endDate", "2024-12-31")
+                        .queryParam("cursor", "???")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getActivitySummary_shouldDefaultToMonthlyPeriods() {
+        ActivitySummaryReport summary = new ActivitySummaryReport();
+        summary.setClientId(1L);
+        summary.setPeriod("MONTH");
+        summary.setAccounts(Collections.emptyList());
+
+        when(reportService.getActivitySummary(eq(1L), any(), any(), eq("MONTH"))).thenReturn(Mono.just(summary));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder
+                        .path("/reports/summary")
+                        .queryParam("clientId", 1L)
+                        .queryParam("startDate", "2024-01-01")
+                        .queryParam("endDate", "2024-12-31")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.period").isEqualTo("MONTH");
+    }
+
     @Test
     void getAccountStatement_shouldReturnNotFound_whenClientNotFound() {
         when(reportService.getAccountStatement(any(), any(), any()))
@@ -63,4 +128,45 @@ class ReportControllerIntegrationTest {
                 .exchange()
                 .expectStatus().isNotFound();
     }
+
+    @Test
+    void streamAccountStatement_shouldReturnNdjsonLines() {
+        AccountStatementLine client = new AccountStatementLine();
+        client.setType(AccountStatementLine.TypeEnum.CLIENT);
+        client.setClientName("Jose Lema");
+        AccountStatementLine account = new AccountStatementLine();
+        account.setType(AccountStatementLine.TypeEnum.ACCOUNT);
+        account.setAccountNumber("12345");
+
+        when(reportService.streamAccountStatement(any(), any(), any())).thenReturn(Flux.just(client, account));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder
+                        .path("/reports/stream")
+                        .queryParam("clientId", 1L)
+                        .queryParam("startDate", "2024-01-01")
+                        .queryParam("endDate", "2024-12-31")
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(AccountStatementLine.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void streamAccountStatement_shouldReturnNotFound_whenClientNotFound() {
+        when(reportService.streamAccountStatement(any(), any(), any()))
+                .thenReturn(Flux.error(new RuntimeException("Customer replica not found")));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder
+                        .path("/reports/stream")
+                        .queryParam("clientId", 99L)
+                        .queryParam("startDate", "2024-01-01")
+                        .queryParam("endDate", "2024-12-31")
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
 }
@@ -0,0 +1,185 @@
+package com.bank.accounts.integration;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.CustomerReplica;
+import com.bank.accounts.domain.model.DailyBalance;
+import com.bank.accounts.domain.model.Money;
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.AccountBalanceSlotRepository;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.BalanceSnapshotRepository;
+import com.bank.accounts.domain.repository.CustomerReplicaRepository;
+import com.bank.accounts.domain.repository.DailyBalanceRepository;
+import com.bank.accounts.domain.repository.MovementRepository;
+import com.bank.accounts.domain.service.AccountBalances;
+import com.bank.accounts.domain.service.AccountCache;
+import com.bank.accounts.domain.service.AccountLedger;
+import com.bank.accounts.domain.service.ReportCache;
+import com.bank.accounts.domain.service.ReportServiceImpl;
+import com.bank.accounts.domain.service.ShardedBalances;
+import com.bank.accounts.model.dto.AccountStatementReport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the statement report against H2 and counts the SQL statements Hibernate prepares for it,
+ * and checks the activity summary queries.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        // "value" is a column of movement but a keyword in H2.
+        "spring.datasource.url=jdbc:h2:mem:reports;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ReportQueryCountIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Autowired
+    private CustomerReplicaRepository customerReplicaRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20})
+    void getAccountStatement_shouldRunTheSameNumberOfQueries_regardlessOfAccountCount(int accountCount) {
+        entityManager.persist(new CustomerReplica(1L, "Jose Lema", 0L));
+        LocalDateTime date = LocalDate.of(2024, 3, 1).atTime(10, 0);
+        for (int i = 0; i < accountCount; i++) {
+            Account account = new Account();
+            account.setAccountNumber("ACC-" + i);
+            account.setAccountType("Ahorro");
+            account.setInitialBalance(100_000L);
+            account.setStatus(true);
+            account.setClientId(1L);
+            entityManager.persist(account);
+            for (int m = 0; m < 3; m++) {
+                Movement movement = new Movement();
+                movement.setAccountId(account.getAccountId());
+                movement.setDate(date.plusMinutes(m));
+                movement.setMovementType("Credito");
+                movement.setValue(1_000L);
+                movement.setBalance(101_000L + m * 1_000L);
+                entityManager.persist(movement);
+            }
+            entityManager.persist(checkpoint(account.getAccountId(), LocalDate.of(2024, 2, 20), 100_000L, 0L));
+            entityManager.persist(checkpoint(account.getAccountId(), LocalDate.of(2024, 3, 1), 103_000L, 3_000L));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        AccountCache accountCache = new AccountCache(accountRepository, 1000, Duration.ofMinutes(10));
+        ReportServiceImpl reportService = new ReportServiceImpl(accountRepository, movementRepository,
+                dailyBalanceRepository, customerReplicaRepository,
+                new AccountBalances(new AccountLedger(balanceSnapshotRepository),
+                        new ShardedBalances(slotRepository, accountRepository, accountCache, Set.of(), 8), "account"),
+                new ReportCache(100, Duration.ofMinutes(10)), Schedulers.immediate(), 500, 1000);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AccountStatementReport report = reportService
+                .getAccountStatement(1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1))
+                .block();
+
+        assertEquals(accountCount, report.getAccounts().size());
+        report.getAccounts().forEach(account -> {
+            assertEquals(3, account.getMovements().size());
+            assertEquals(1000.0, account.getOpeningBalance());
+            assertEquals(1030.0, account.getClosingBalance());
+        });
+        // Customer replica, accounts, movements, balance checkpoints.
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summarizeByMonth_shouldAggregateMovementsPerAccountAndMonth() {
+        Account account = new Account();
+        account.setAccountNumber("ACC-1");
+        account.setAccountType("Ahorro");
+        account.setInitialBalance(100_000L);
+        account.setStatus(true);
+        account.setClientId(1L);
+        entityManager.persist(account);
+        entityManager.persist(movement(account.getAccountId(), LocalDate.of(2024, 3, 1).atTime(10, 0), "Credito", 5_000L, 105_000L));
+        entityManager.persist(movement(account.getAccountId(), LocalDate.of(2024, 3, 20).atTime(10, 0), "Debito", 2_000L, 103_000L));
+        entityManager.persist(movement(account.getAccountId(), LocalDate.of(2024, 4, 2).atTime(10, 0), "Debito", 3_000L, 100_000L));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<MovementRepository.PeriodSummary> summaries = movementRepository.summarizeByMonth(
+                List.of(account.getAccountId()), LocalDate.of(2024, 1, 1).atStartOfDay(),
+                LocalDate.of(2024, 12, 31).atTime(23, 59));
+
+        assertEquals(2, summaries.size());
+        MovementRepository.PeriodSummary march = summaries.get(0);
+        assertEquals(LocalDate.of(2024, 3, 1), march.getPeriodStart());
+        assertEquals(2L, march.getMovementCount());
+        // 20.00 of debits and 50.00 of credits, read back in cents.
+        assertEquals(2_000L, Money.toMinorUnits(march.getTotalDebits()));
+        assertEquals(5_000L, Money.toMinorUnits(march.getTotalCredits()));
+        assertEquals(103_000L, Money.toMinorUnits(march.getMinBalance()));
+        assertEquals(105_000L, Money.toMinorUnits(march.getMaxBalance()));
+        assertEquals(LocalDate.of(2024, 4, 1), summaries.get(1).getPeriodStart());
+        assertEquals(0L, Money.toMinorUnits(summaries.get(1).getTotalCredits()));
+    }
+
+    private Movement movement(Long accountId, LocalDateTime date, String type, long value, long balance) {
+        Movement movement = new Movement();
+        movement.setAccountId(accountId);
+        movement.setDate(date);
+        movement.setMovementType(type);
+        movement.setValue(value);
+        movement.setBalance(balance);
+        return movement;
+    }
+
+    private DailyBalance checkpoint(Long accountId, LocalDate day, long closingBalance, long credits) {
+        DailyBalance checkpoint = new DailyBalance();
+        checkpoint.setAccountId(accountId);
+        checkpoint.setBalanceDate(day);
+        checkpoint.setClosingBalance(closingBalance);
+        checkpoint.setTotalCredits(credits);
+        checkpoint.setLastMovementAt(day.atTime(23, 0));
+        return checkpoint;
+    }
+}
@@ -0,0 +1,190 @@
+package com.bank.accounts.integration;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.repository.AccountBalanceSlotRepository;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.BalanceSnapshotRepository;
+import com.bank.accounts.domain.repository.DailyBalanceRepository;
+import com.bank.accounts.domain.repository.IdempotencyRecordRepository;
+import com.bank.accounts.domain.repository.MovementRepository;
+import com.bank.accounts.domain.service.AccountCache;
+import com.bank.accounts.domain.service.AccountLedger;
+import com.bank.accounts.domain.service.AccountLockStripes;
+import com.bank.accounts.domain.service.DailyBalanceRecorder;
+import com.bank.accounts.domain.service.IdempotencyStore;
+import com.bank.accounts.domain.service.MovementServiceImpl;
+import com.bank.accounts.domain.service.OptimisticRetry;
+import com.bank.accounts.domain.service.ReportCache;
+import com.bank.accounts.domain.service.ShardedBalances;
+import com.bank.accounts.domain.service.TransferServiceImpl;
+import com.bank.accounts.model.dto.TransferRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs transfers through the movement service against H2 with the real JPA transaction manager, so
+ * rollbacks, version checks and commits are the database's own rather than stubs. The test methods
+ * are not transactional themselves: each transfer commits or rolls back on its own.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        // "value" is a column of movement but a keyword in H2.
+        "spring.datasource.url=jdbc:h2:mem:transfers;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class TransferTransactionIntegrationTest {
+
+    private static final long OPENING_BALANCE = 1_000_00L;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MovementRepository movementRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransferServiceImpl transfers;
+
+    @BeforeEach
+    void setUp() {
+        AccountCache accountCache = new AccountCache(accountRepository, 1000, Duration.ofMinutes(10));
+        // The daily checkpoint upsert is PostgreSQL-specific and not what these tests are about.
+        MovementServiceImpl movements = new MovementServiceImpl(movementRepository,
+                new DailyBalanceRecorder(mock(DailyBalanceRepository.class)), accountRepository,
+                new TransactionTemplate(transactionManager), new AccountLockStripes(16), accountCache,
+                new OptimisticRetry(new SimpleMeterRegistry(), 3, Duration.ofMillis(1), Duration.ofMillis(5)),
+                new AccountLedger(balanceSnapshotRepository),
+                new ShardedBalances(slotRepository, accountRepository, accountCache, Set.of(), 8),
+                new ReportCache(100, Duration.ofMinutes(10)),
+                new IdempotencyStore(1000, Duration.ofHours(1)), idempotencyRecordRepository,
+                Schedulers.boundedElastic(), 500, false, "account");
+        transfers = new TransferServiceImpl(movements);
+    }
+
+    @AfterEach
+    void tearDown() {
+        movementRepository.deleteAllInBatch();
+        accountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void createTransfer_shouldRollBackTheDebit_whenTheCreditFails() {
+        account("ACC-1");
+
+        // ACC-1 sorts before ACC-9, so the debit is written before the credit fails.
+        StepVerifier.create(transfers.createTransfer(transfer("ACC-1", "ACC-9", 75.0)))
+                .expectErrorMessage("Account not found")
+                .verify(Duration.ofSeconds(10));
+
+        assertEquals(OPENING_BALANCE, accountRepository.findByAccountNumber("ACC-1").orElseThrow().getInitialBalance());
+        assertEquals(0, movementRepository.count());
+
+        // The cached account must not carry the rolled-back debit either.
+        account("ACC-2");
+        StepVerifier.create(transfers.createTransfer(transfer("ACC-1", "ACC-2", 75.0)))
+                .expectNextMatches(response -> response.getDebit().getBalance() == 925.0
+                        && response.getCredit().getBalance() == 1075.0)
+                .verifyComplete();
+        assertEquals(2, movementRepository.count());
+    }
+
+    /**
+     * Runs concurrent transfers in both directions across a small pool of accounts. Every transfer
+     * must either complete or be rejected for insufficient funds, with money conserved.
+     */
+    @Test
+    void concurrentOppositeTransfers_shouldNeitherDeadlockNorLoseMoney() {
+        int accounts = 6;
+        for (int id = 1; id <= accounts; id++) {
+            account("ACC-" + id);
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        int transferCount = 400;
+        Flux.range(0, transferCount)
+                .flatMap(i -> {
+                    int from = i % accounts + 1;
+                    int to = (i / accounts + from) % accounts + 1;
+                    if (from == to) {
+                        to = from % accounts + 1;
+                    }
+                    // Alternate the direction so pairs of accounts transfer both ways at once.
+                    TransferRequest request = i % 2 == 0
+                            ? transfer("ACC-" + from, "ACC-" + to, 300.0)
+                            : transfer("ACC-" + to, "ACC-" + from, 300.0);
+                    return transfers.createTransfer(request)
+                            .doOnNext(response -> completed.incrementAndGet())
+                            .onErrorResume(e -> {
+                                assertEquals("Saldo no disponible", e.getMessage());
+                                rejected.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, 8)
+                .then()
+                .block(Duration.ofSeconds(60));
+
+        assertEquals(transferCount, completed.get() + rejected.get());
+        assertTrue(completed.get() > 0);
+        assertEquals(accounts * OPENING_BALANCE,
+                accountRepository.findAll().stream().mapToLong(Account::getInitialBalance).sum());
+        assertTrue(accountRepository.findAll().stream().allMatch(account -> account.getInitialBalance() >= 0));
+        assertEquals(2L * completed.get(), movementRepository.count());
+    }
+
+    private Account account(String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setAccountType("Ahorro");
+        account.setInitialBalance(OPENING_BALANCE);
+        account.setStatus(true);
+        account.setClientId(1L);
+        return accountRepository.save(account);
+    }
+
+    private TransferRequest transfer(String source, String target, double value) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountNumber(source);
+        request.setTargetAccountNumber(target);
+        request.setValue(value);
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.service.AccountCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCacheTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new AccountCache(accountRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void getById_shouldLoadOnce_andIndexByAccountNumber() {
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account(1L, "12345", 100_000L)));
+
+        accountCache.getById(1L);
+        Optional<Account> cached = accountCache.getById(1L);
+
+        verify(accountRepository, times(1)).findById(1L);
+        assertEquals(100_000L, cached.orElseThrow().getInitialBalance());
+        assertEquals(1L, accountCache.stats().hitCount());
+        assertEquals(1L, accountCache.stats().missCount());
+        assertEquals(1L, accountCache.getIfPresent("12345").orElseThrow().getAccountId());
+    }
+
+    @Test
+    void put_shouldReturnCopies_soCallersCannotMutateCachedState() {
+        Account account = account(1L, "12345", 100_000L);
+        accountCache.put(account);
+
+        account.setInitialBalance(0L);
+        accountCache.getIfPresent("12345").orElseThrow().setInitialBalance(1L);
+
+        assertEquals(100_000L, accountCache.getIfPresent("12345").orElseThrow().getInitialBalance());
+    }
+
+    @Test
+    void put_shouldDropOldNumber_whenAccountIsRenumbered() {
+        accountCache.put(account(1L, "12345", 100_000L));
+        accountCache.put(account(1L, "54321", 100_000L));
+
+        assertTrue(accountCache.getIfPresent("12345").isEmpty());
+        assertEquals(1L, accountCache.getIfPresent("54321").orElseThrow().getAccountId());
+    }
+
+    @Test
+    void evict_shouldRemoveBothIndexes() {
+        accountCache.put(account(1L, "12345", 100_000L));
+
+        accountCache.evict(1L);
+
+        assertTrue(accountCache.getIfPresent("12345").isEmpty());
+        assertEquals(0L, accountCache.size());
+    }
+
+    private Account account(Long id, String number, long balance) {
+        Account account = new Account();
+        account.setAccountId(id);
+        account.setAccountNumber(number);
+        account.setInitialBalance(balance);
+        return account;
+    }
+}
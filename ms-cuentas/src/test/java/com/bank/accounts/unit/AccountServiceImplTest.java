@@ -1,23 +1,38 @@
 package com.bank.accounts.unit;
 
 import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.repository.AccountBalanceSlotRepository;
 import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.BalanceSnapshotRepository;
+import com.bank.accounts.domain.service.AccountBalances;
+import com.bank.accounts.domain.service.AccountCache;
+import com.bank.accounts.domain.service.AccountLedger;
 import com.bank.accounts.domain.service.AccountServiceImpl;
+import com.bank.accounts.domain.service.ReportCache;
+import com.bank.accounts.domain.service.ShardedBalances;
 import com.bank.accounts.model.dto.AccountRequest;
 import com.bank.accounts.model.dto.AccountResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 
@@ -27,9 +42,27 @@ class AccountServiceImplTest {
     @Mock
     private AccountRepository accountRepository;
 
-    @InjectMocks
+    @Mock
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
     private AccountServiceImpl accountService;
 
+    @BeforeEach
+    void setUp() {
+        accountService = accountService("account");
+    }
+
+    private AccountServiceImpl accountService(String balanceMode) {
+        AccountCache accountCache = new AccountCache(accountRepository, 1000, Duration.ofMinutes(10));
+        AccountBalances accountBalances = new AccountBalances(new AccountLedger(balanceSnapshotRepository),
+                new ShardedBalances(slotRepository, accountRepository, accountCache, Set.of("99999"), 8), balanceMode);
+        return new AccountServiceImpl(accountRepository, accountCache, accountBalances,
+                new ReportCache(100, Duration.ofMinutes(10)), Schedulers.immediate(), 2);
+    }
+
     @Test
     void createAccount_shouldReturnAccountResponse() {
         AccountRequest request = new AccountRequest();
@@ -43,7 +76,7 @@ class AccountServiceImplTest {
         savedAccount.setAccountId(1L);
         savedAccount.setAccountNumber("12345");
         savedAccount.setAccountType("Ahorro");
-        savedAccount.setInitialBalance(1000.0);
+        savedAccount.setInitialBalance(100_000L);
         savedAccount.setStatus(true);
         savedAccount.setClientId(1L);
 
@@ -57,29 +90,83 @@ class AccountServiceImplTest {
     }
 
     @Test
-    void getAllAccounts_shouldReturnAllAccounts() {
-        Account account1 = new Account();
-        account1.setAccountId(1L);
-        account1.setAccountNumber("111");
-        account1.setAccountType("Ahorro");
-
-        Account account2 = new Account();
-        account2.setAccountId(2L);
-        account2.setAccountNumber("222");
-        account2.setAccountType("Corriente");
+    void getAllAccounts_shouldReadEveryAccount_pageByPage() {
+        Account account1 = account(1L, "111", "Ahorro");
+        Account account2 = account(2L, "222", "Corriente");
+        Account account3 = account(3L, "333", "Ahorro");
 
-        when(accountRepository.findAll()).thenReturn(List.of(account1, account2));
+        when(accountRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(account1, account2));
+        when(accountRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(2L, Limit.of(2)))
+                .thenReturn(List.of(account3));
 
         Flux<AccountResponse> result = accountService.getAllAccounts();
 
         StepVerifier.create(result)
+                .expectNextMatches(response -> response.getAccountId() == 1L)
+                .expectNextMatches(response -> response.getAccountId() == 2L)
+                .expectNextMatches(response -> response.getAccountId() == 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllAccounts_shouldReadLedgerBalances_oncePerPage_inLedgerMode() {
+        AccountServiceImpl ledgerService = accountService("ledger");
+        when(accountRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(account(1L, "111", "Ahorro"), account(2L, "222", "Corriente")));
+        when(accountRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(2L, Limit.of(2)))
+                .thenReturn(List.of());
+        when(balanceSnapshotRepository.findLedgerPositions(List.of(1L, 2L)))
+                .thenReturn(List.of(ledgerPosition(1L, "750.00"), ledgerPosition(2L, "20.50")));
+
+        StepVerifier.create(ledgerService.getAllAccounts())
+                .expectNextMatches(response -> response.getInitialBalance() == 750.0)
+                .expectNextMatches(response -> response.getInitialBalance() == 20.5)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllAccounts_shouldReadPagesOnDemand_whenSubscriberIsSlow() {
+        // Every page is full, so there is always another one to read.
+        AtomicInteger pagesRead = new AtomicInteger();
+        when(accountRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(any(), eq(Limit.of(2)))).thenAnswer(invocation -> {
+            long page = pagesRead.incrementAndGet();
+            return List.of(account(page * 2 - 1, "A" + page, "Ahorro"), account(page * 2, "B" + page, "Ahorro"));
+        });
+
+        StepVerifier.create(accountService.getAllAccounts(), 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        // The page being consumed and at most one read ahead.
+        assertTrue(pagesRead.get() <= 2, "pages read: " + pagesRead.get());
+    }
+
+    @Test
+    void getAccounts_shouldSeekPastCursor_andCapLimit() {
+        when(accountRepository.findByAccountIdGreaterThanOrderByAccountIdAsc(eq(5L), eq(Limit.of(2))))
+                .thenReturn(List.of(account(6L, "666", "Ahorro"), account(7L, "777", "Corriente")));
+
+        StepVerifier.create(accountService.getAccounts(5L, 50))
                 .expectNextCount(2)
                 .verifyComplete();
     }
 
+    @Test
+    void getAccounts_shouldFail_whenLimitIsNotPositive() {
+        StepVerifier.create(accountService.getAccounts(null, 0))
+                .expectErrorMessage("Page limit must be greater than zero")
+                .verify();
+    }
+
     @Test
     void deleteAccount_shouldComplete_whenAccountExists() {
-        when(accountRepository.existsById(1L)).thenReturn(true);
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setClientId(1L);
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
         doNothing().when(accountRepository).deleteById(1L);
 
         Mono<Void> result = accountService.deleteAccount(1L);
@@ -88,6 +175,22 @@ class AccountServiceImplTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getAccountById_shouldReturnAggregateBalance_whenAccountIsSharded() {
+        Account account = new Account();
+        account.setAccountId(2L);
+        account.setAccountNumber("99999");
+        account.setAccountType("Corriente");
+        account.setInitialBalance(0L);
+
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(account));
+        when(slotRepository.aggregateBalance(2L)).thenReturn(new BigDecimal("1250.75"));
+
+        StepVerifier.create(accountService.getAccountById(2L))
+                .expectNextMatches(response -> response.getInitialBalance() == 1250.75)
+                .verifyComplete();
+    }
+
     @Test
     void getAccountById_shouldFail_whenNotFound() {
         when(accountRepository.findById(99L)).thenReturn(Optional.empty());
@@ -98,4 +201,31 @@ class AccountServiceImplTest {
                 .expectErrorMessage("Account not found with id: 99")
                 .verify();
     }
+
+    private Account account(Long accountId, String accountNumber, String accountType) {
+        Account account = new Account();
+        account.setAccountId(accountId);
+        account.setAccountNumber(accountNumber);
+        account.setAccountType(accountType);
+        return account;
+    }
+
+    private BalanceSnapshotRepository.LedgerPosition ledgerPosition(Long accountId, String balance) {
+        return new BalanceSnapshotRepository.LedgerPosition() {
+            @Override
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+
+            @Override
+            public Long getLedgerSequence() {
+                return 3L;
+            }
+        };
+    }
 }
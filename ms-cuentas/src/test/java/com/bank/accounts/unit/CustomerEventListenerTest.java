@@ -3,14 +3,21 @@ package com.bank.accounts.unit;
 import com.bank.accounts.domain.model.CustomerReplica;
 import com.bank.accounts.domain.repository.CustomerReplicaRepository;
 import com.bank.accounts.domain.service.CustomerEventListener;
+import com.bank.accounts.domain.service.ReportCache;
 import com.bank.accounts.model.dto.CustomerResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import static org.mockito.ArgumentMatchers.any;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,17 +26,63 @@ class CustomerEventListenerTest {
     @Mock
     private CustomerReplicaRepository repository;
 
-    @InjectMocks
+    @Mock
+    private ReportCache reportCache;
+
     private CustomerEventListener eventListener;
 
+    @BeforeEach
+    void setUp() {
+        eventListener = new CustomerEventListener(repository, reportCache, 1000);
+    }
+
     @Test
-    void handleCustomerEvent_shouldSaveCustomerReplica() {
-        CustomerResponse customerEvent = new CustomerResponse();
-        customerEvent.setCustomerId(1L);
-        customerEvent.setName("Jose Lema");
+    void handleCustomerEvents_shouldUpsertBatch_andInvalidateReports() {
+        eventListener.handleCustomerEvents(List.of(customer(1L, "Jose Lema", 0L), customer(2L, "Marianela Montalvo", 4L)));
 
-        eventListener.handleCustomerEvent(customerEvent);
+        ArgumentCaptor<Collection<CustomerReplica>> replicas = ArgumentCaptor.captor();
+        verify(repository).upsertAll(replicas.capture());
+        assertEquals(List.of(new CustomerReplica(1L, "Jose Lema", 0L), new CustomerReplica(2L, "Marianela Montalvo", 4L)),
+                List.copyOf(replicas.getValue()));
+        verify(reportCache).invalidate(1L);
+        verify(reportCache).invalidate(2L);
+    }
+
+    @Test
+    void handleCustomerEvents_shouldKeepNewestVersion_whenCustomerRepeatsInBatch() {
+        eventListener.handleCustomerEvents(List.of(customer(1L, "Jose Lema Ortiz", 2L), customer(1L, "Jose Lema", 1L)));
+
+        ArgumentCaptor<Collection<CustomerReplica>> replicas = ArgumentCaptor.captor();
+        verify(repository).upsertAll(replicas.capture());
+        assertEquals(List.of(new CustomerReplica(1L, "Jose Lema Ortiz", 2L)), List.copyOf(replicas.getValue()));
+    }
+
+    @Test
+    void handleCustomerEvents_shouldDropSeenVersions_withoutTouchingRepository() {
+        eventListener.handleCustomerEvents(List.of(customer(1L, "Jose Lema Ortiz", 2L)));
+
+        eventListener.handleCustomerEvents(List.of(customer(1L, "Jose Lema Ortiz", 2L), customer(1L, "Jose Lema", 1L)));
+
+        verify(repository, times(1)).upsertAll(anyCollection());
+        verify(reportCache, times(1)).invalidate(1L);
+    }
+
+    @Test
+    void handleCustomerEvents_shouldAlwaysWriteUnversionedEvents() {
+        eventListener.handleCustomerEvents(List.of(customer(1L, "Jose Lema", 5L)));
+        eventListener.handleCustomerEvents(List.of(customer(1L, "Jose Lema", null)));
+
+        ArgumentCaptor<Collection<CustomerReplica>> replicas = ArgumentCaptor.captor();
+        verify(repository, times(2)).upsertAll(replicas.capture());
+        assertEquals(List.of(new CustomerReplica(1L, "Jose Lema", CustomerReplica.UNVERSIONED)),
+                List.copyOf(replicas.getAllValues().get(1)));
+    }
 
-        verify(repository).save(any(CustomerReplica.class));
+    private CustomerResponse customer(Long customerId, String name, Long version) {
+        CustomerResponse customer = new CustomerResponse();
+        customer.setCustomerId(customerId);
+        customer.setName(name);
+        customer.setVersion(version);
+        return customer;
     }
 }
@@ -0,0 +1,97 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.model.DailyBalance;
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.DailyBalanceRepository;
+import com.bank.accounts.domain.service.DailyBalanceRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DailyBalanceRecorderTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2024, 3, 4, 9, 0);
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    private DailyBalanceRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new DailyBalanceRecorder(dailyBalanceRepository);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void record_shouldWriteOneRowPerAccountAndDay_onlyBeforeCommit() {
+        recorder.record(movement(1L, MORNING, "Debito", 2_000L, 98_000L));
+        recorder.record(movement(1L, MORNING.plusHours(2), "Credito", 5_000L, 103_000L));
+        recorder.record(movement(2L, MORNING, "Credito", 1_000L, 11_000L));
+        recorder.record(movement(1L, MORNING.plusDays(1), "Debito", 3_000L, 100_000L));
+
+        verify(dailyBalanceRepository, never()).recordAll(anyCollection());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+
+        ArgumentCaptor<Collection<DailyBalance>> days = ArgumentCaptor.captor();
+        verify(dailyBalanceRepository).recordAll(days.capture());
+        List<DailyBalance> written = List.copyOf(days.getValue());
+        assertEquals(3, written.size());
+        DailyBalance first = written.get(0);
+        assertEquals(LocalDate.of(2024, 3, 4), first.getBalanceDate());
+        assertEquals(2_000L, first.getTotalDebits());
+        assertEquals(5_000L, first.getTotalCredits());
+        assertEquals(103_000L, first.getClosingBalance());
+        assertEquals(MORNING.plusHours(2), first.getLastMovementAt());
+        assertEquals(2L, written.get(1).getAccountId());
+        assertEquals(LocalDate.of(2024, 3, 5), written.get(2).getBalanceDate());
+
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertFalse(TransactionSynchronizationManager.hasResource(recorder));
+    }
+
+    @Test
+    void record_shouldWriteImmediately_outsideTransaction() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        recorder.record(movement(1L, MORNING, "Debito", 2_000L, 98_000L));
+
+        verify(dailyBalanceRepository).recordAll(anyCollection());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private Movement movement(Long accountId, LocalDateTime date, String type, long value, long balance) {
+        Movement movement = new Movement();
+        movement.setAccountId(accountId);
+        movement.setDate(date);
+        movement.setMovementType(type);
+        movement.setValue(value);
+        movement.setBalance(balance);
+        return movement;
+    }
+}
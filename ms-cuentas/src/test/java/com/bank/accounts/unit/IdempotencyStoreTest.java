@@ -0,0 +1,143 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.service.IdempotencyStore;
+import com.bank.accounts.model.dto.MovementRequest;
+import com.bank.accounts.model.dto.MovementResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class IdempotencyStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void execute_shouldRunActionOnce_forRepeatedKey() {
+        IdempotencyStore store = new IdempotencyStore(10, Duration.ofMinutes(5), clock);
+        AtomicInteger executions = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(store.execute("key-1", 1L, () -> movement(executions.incrementAndGet())))
+                    .expectNextMatches(response -> response.getMovementId() == 1L && response.getBalance() == 900.0)
+                    .verifyComplete();
+        }
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_shouldRunActionAgain_afterKeyExpires() {
+        IdempotencyStore store = new IdempotencyStore(10, Duration.ofMinutes(5), clock);
+        AtomicInteger executions = new AtomicInteger();
+
+        store.execute("key-1", 1L, () -> movement(executions.incrementAndGet())).block();
+        clock.advance(Duration.ofMinutes(6));
+
+        StepVerifier.create(store.execute("key-1", 1L, () -> movement(executions.incrementAndGet())))
+                .expectNextMatches(response -> response.getMovementId() == 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_shouldNotRecordFailures() {
+        IdempotencyStore store = new IdempotencyStore(10, Duration.ofMinutes(5), clock);
+
+        StepVerifier.create(store.execute("key-1", 1L, () -> Mono.error(new RuntimeException("Saldo no disponible"))))
+                .expectErrorMessage("Saldo no disponible")
+                .verify();
+
+        StepVerifier.create(store.execute("key-1", 1L, () -> movement(7)))
+                .expectNextMatches(response -> response.getMovementId() == 7L)
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_shouldReject_whenKeyIsReusedForADifferentRequest() {
+        IdempotencyStore store = new IdempotencyStore(10, Duration.ofMinutes(5), clock);
+        AtomicInteger executions = new AtomicInteger();
+
+        store.execute("key-1", 1L, () -> movement(executions.incrementAndGet())).block();
+
+        StepVerifier.create(store.execute("key-1", 2L, () -> movement(executions.incrementAndGet())))
+                .expectErrorMessage("Idempotency key was already used with a different request")
+                .verify();
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void requestHash_shouldMatchSameMovement_andTellMovementsApart() {
+        assertEquals(IdempotencyStore.requestHash(request("12345", MovementRequest.MovementTypeEnum.DEBITO, 100.0)),
+                IdempotencyStore.requestHash(request("12345", MovementRequest.MovementTypeEnum.DEBITO, 100.0)));
+        assertNotEquals(IdempotencyStore.requestHash(request("12345", MovementRequest.MovementTypeEnum.DEBITO, 100.0)),
+                IdempotencyStore.requestHash(request("12345", MovementRequest.MovementTypeEnum.DEBITO, 10.0)));
+        assertNotEquals(IdempotencyStore.requestHash(request("12345", MovementRequest.MovementTypeEnum.DEBITO, 100.0)),
+                IdempotencyStore.requestHash(request("12345", MovementRequest.MovementTypeEnum.CREDITO, 100.0)));
+        assertNotEquals(IdempotencyStore.requestHash(request("12345", MovementRequest.MovementTypeEnum.DEBITO, 100.0)),
+                IdempotencyStore.requestHash(request("54321", MovementRequest.MovementTypeEnum.DEBITO, 100.0)));
+    }
+
+    @Test
+    void execute_shouldEvictOldestKeys_whenCapacityIsExceeded() {
+        IdempotencyStore store = new IdempotencyStore(3, Duration.ofMinutes(5), clock);
+
+        for (int i = 0; i < 10; i++) {
+            long id = i;
+            store.execute("key-" + i, 1L, () -> movement(id)).block();
+        }
+
+        assertEquals(3, store.size());
+    }
+
+    private MovementRequest request(String accountNumber, MovementRequest.MovementTypeEnum type, double value) {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber(accountNumber);
+        request.setMovementType(type);
+        request.setValue(value);
+        return request;
+    }
+
+    private Mono<MovementResponse> movement(long id) {
+        MovementResponse response = new MovementResponse();
+        response.setMovementId(id);
+        response.setDate(OffsetDateTime.now(ZoneOffset.UTC));
+        response.setMovementType("Debito");
+        response.setValue(100.0);
+        response.setBalance(900.0);
+        return Mono.just(response);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
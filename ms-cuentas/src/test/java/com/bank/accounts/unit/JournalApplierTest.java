@@ -0,0 +1,157 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.JournalCheckpoint;
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.JournalCheckpointRepository;
+import com.bank.accounts.domain.repository.MovementRepository;
+import com.bank.accounts.domain.service.AccountCache;
+import com.bank.accounts.domain.service.AccountLockStripes;
+import com.bank.accounts.domain.service.DailyBalanceRecorder;
+import com.bank.accounts.domain.service.IdempotencyStore;
+import com.bank.accounts.domain.service.JournalApplier;
+import com.bank.accounts.domain.service.JournaledMovementService;
+import com.bank.accounts.domain.service.MovementJournal;
+import com.bank.accounts.domain.service.ReportCache;
+import com.bank.accounts.model.dto.MovementRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JournalApplierTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private MovementRepository movementRepository;
+
+    @Mock
+    private DailyBalanceRecorder dailyBalanceRecorder;
+
+    @Mock
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MovementJournal journal;
+
+    private JournaledMovementService movementService;
+
+    private JournalApplier applier;
+
+    @BeforeEach
+    void setUp() {
+        journal = new MovementJournal(directory, DataSize.ofKilobytes(4));
+        AccountCache accountCache = new AccountCache(accountRepository, 1000, Duration.ofMinutes(10));
+        movementService = new JournaledMovementService(journal, accountRepository, accountCache,
+                new AccountLockStripes(16), new IdempotencyStore(1000, Duration.ofHours(1)), Schedulers.immediate(),
+                "account", Set.of(), false);
+        applier = new JournalApplier(journal, movementService, accountRepository, movementRepository,
+                dailyBalanceRecorder, checkpointRepository, accountCache, new ReportCache(100, Duration.ofMinutes(10)),
+                new TransactionTemplate(transactionManager), 500, Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        applier.stop();
+        journal.destroy();
+    }
+
+    @Test
+    void start_shouldReplayJournaledMovements_andCheckpointTheirPosition() {
+        when(accountRepository.findByAccountNumber("111")).thenReturn(Optional.of(account(100_00L)));
+        movementService.createMovement(request(MovementRequest.MovementTypeEnum.DEBITO, 30.0)).block();
+        movementService.createMovement(request(MovementRequest.MovementTypeEnum.CREDITO, 5.0)).block();
+
+        Account stored = account(100_00L);
+        when(checkpointRepository.findById("movements")).thenReturn(Optional.empty());
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus(false));
+        when(accountRepository.findAllById(List.of(1L))).thenReturn(List.of(stored));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArgument(0));
+
+        applier.start();
+        applier.stop();
+
+        assertEquals(75_00L, stored.getInitialBalance());
+        ArgumentCaptor<Movement> movements = ArgumentCaptor.forClass(Movement.class);
+        verify(movementRepository, times(2)).save(movements.capture());
+        assertEquals(List.of(70_00L, 75_00L), movements.getAllValues().stream().map(Movement::getBalance).toList());
+        verify(dailyBalanceRecorder, times(2)).record(any(Movement.class));
+        ArgumentCaptor<JournalCheckpoint> checkpoint = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        verify(checkpointRepository).save(checkpoint.capture());
+        assertTrue(journal.read(checkpoint.getValue().getPosition(), 10).isEmpty());
+
+        // Once applied, the account is checked against the committed row again.
+        StepVerifier.create(movementService.createMovement(request(MovementRequest.MovementTypeEnum.DEBITO, 75.0)))
+                .expectNextMatches(response -> response.getBalance() == 0.0)
+                .verifyComplete();
+        verify(accountRepository, times(1)).findByAccountNumber("111");
+    }
+
+    @Test
+    void start_shouldSkipMovementsOfMissingAccounts_andStillAdvance() {
+        when(accountRepository.findByAccountNumber("111")).thenReturn(Optional.of(account(100_00L)));
+        movementService.createMovement(request(MovementRequest.MovementTypeEnum.CREDITO, 5.0)).block();
+
+        when(checkpointRepository.findById("movements")).thenReturn(Optional.of(new JournalCheckpoint("movements", 0L)));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus(false));
+        when(accountRepository.findAllById(List.of(1L))).thenReturn(List.of());
+
+        applier.start();
+        applier.stop();
+
+        verify(movementRepository, never()).save(any(Movement.class));
+        ArgumentCaptor<JournalCheckpoint> checkpoint = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        verify(checkpointRepository).save(checkpoint.capture());
+        assertEquals(journal.durablePosition(), checkpoint.getValue().getPosition());
+    }
+
+    private Account account(long balance) {
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("111");
+        account.setInitialBalance(balance);
+        account.setClientId(1L);
+        return account;
+    }
+
+    private MovementRequest request(MovementRequest.MovementTypeEnum type, double value) {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("111");
+        request.setMovementType(type);
+        request.setValue(value);
+        return request;
+    }
+}
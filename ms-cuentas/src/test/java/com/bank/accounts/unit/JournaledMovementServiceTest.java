@@ -0,0 +1,125 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.service.AccountCache;
+import com.bank.accounts.domain.service.AccountLockStripes;
+import com.bank.accounts.domain.service.IdempotencyStore;
+import com.bank.accounts.domain.service.JournaledMovementService;
+import com.bank.accounts.domain.service.MovementJournal;
+import com.bank.accounts.model.dto.MovementRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JournaledMovementServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private MovementJournal journal;
+
+    private JournaledMovementService movementService;
+
+    @BeforeEach
+    void setUp() {
+        journal = new MovementJournal(directory, DataSize.ofKilobytes(4));
+        movementService = movementService("account", Set.of(), false);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.destroy();
+    }
+
+    @Test
+    void createMovement_shouldCheckAgainstUnappliedMovements() {
+        when(accountRepository.findByAccountNumber("111")).thenReturn(Optional.of(account(1L, "111", 100_00L)));
+
+        StepVerifier.create(movementService.createMovement(request("111", MovementRequest.MovementTypeEnum.DEBITO, 60.0)))
+                .expectNextMatches(response -> response.getBalance() == 40.0 && response.getMovementId() == null)
+                .verifyComplete();
+        // Nothing has been applied, so the account row still reads 100.00.
+        StepVerifier.create(movementService.createMovement(request("111", MovementRequest.MovementTypeEnum.DEBITO, 60.0)))
+                .expectErrorMessage("Saldo no disponible")
+                .verify();
+        StepVerifier.create(movementService.createMovement(request("111", MovementRequest.MovementTypeEnum.CREDITO, 10.0)))
+                .expectNextMatches(response -> response.getBalance() == 50.0)
+                .verifyComplete();
+
+        verify(accountRepository, times(1)).findByAccountNumber("111");
+    }
+
+    @Test
+    void createMovement_shouldFail_whenAccountDoesNotExist() {
+        when(accountRepository.findByAccountNumber("999")).thenReturn(Optional.empty());
+
+        StepVerifier.create(movementService.createMovement(request("999", MovementRequest.MovementTypeEnum.CREDITO, 10.0)))
+                .expectErrorMessage("Account not found")
+                .verify();
+    }
+
+    @Test
+    void checkBalanceMode_shouldRefuseLedgerModeShardedAccountsAndPersistentIdempotency() {
+        assertThrows(IllegalStateException.class, movementService("ledger", Set.of(), false)::checkBalanceMode);
+        assertThrows(IllegalStateException.class, movementService("account", Set.of("111"), false)::checkBalanceMode);
+        assertThrows(IllegalStateException.class, movementService("account", Set.of(), true)::checkBalanceMode);
+        movementService.checkBalanceMode();
+    }
+
+    @Test
+    void createMovementsAtomically_shouldBeRejected_withMappedMessage() {
+        StepVerifier.create(movementService.createMovementsAtomically(
+                        List.of(request("111", MovementRequest.MovementTypeEnum.DEBITO, 50.0),
+                                request("222", MovementRequest.MovementTypeEnum.CREDITO, 50.0))))
+                .expectErrorMessage("Atomic movements are not available with journal durability")
+                .verify();
+    }
+
+    private JournaledMovementService movementService(String balanceMode, Set<String> shardedAccounts,
+                                                     boolean persistentIdempotency) {
+        return new JournaledMovementService(journal, accountRepository,
+                new AccountCache(accountRepository, 1000, Duration.ofMinutes(10)), new AccountLockStripes(16),
+                new IdempotencyStore(1000, Duration.ofHours(1)), Schedulers.immediate(), balanceMode, shardedAccounts,
+                persistentIdempotency);
+    }
+
+    private Account account(Long accountId, String accountNumber, long balance) {
+        Account account = new Account();
+        account.setAccountId(accountId);
+        account.setAccountNumber(accountNumber);
+        account.setInitialBalance(balance);
+        account.setClientId(1L);
+        return account;
+    }
+
+    private MovementRequest request(String accountNumber, MovementRequest.MovementTypeEnum type, double value) {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber(accountNumber);
+        request.setMovementType(type);
+        request.setValue(value);
+        return request;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void toMinorUnits_shouldConvertExactly() {
+        assertEquals(10L, Money.toMinorUnits(0.1));
+        assertEquals(123_456L, Money.toMinorUnits(1234.56));
+        assertEquals(150_000L, Money.toMinorUnits(new BigDecimal("1500.00")));
+    }
+
+    @Test
+    void toMinorUnits_shouldRejectFractionsOfCents() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> Money.toMinorUnits(10.001));
+        assertEquals("Amount must have at most two decimal places: 10.001", ex.getMessage());
+    }
+
+    @Test
+    void balance_shouldStayExact_acrossManyMovements() {
+        long balance = 0;
+        long tenCents = Money.toMinorUnits(0.1);
+        for (int i = 0; i < 1_000_000; i++) {
+            balance += tenCents;
+        }
+
+        assertEquals(100_000.0, Money.toDouble(balance));
+        assertEquals(new BigDecimal("100000.00"), Money.toDecimal(balance));
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.model.JournalEntry;
+import com.bank.accounts.domain.service.MovementJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovementJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_shouldBecomeReadable_onceDurable() throws Exception {
+        MovementJournal journal = new MovementJournal(directory, DataSize.ofKilobytes(4));
+        try {
+            long end = journal.append(entry(1, 90_000L)).get(5, TimeUnit.SECONDS);
+            journal.append(entry(2, 80_000L)).get(5, TimeUnit.SECONDS);
+
+            List<MovementJournal.Record> records = journal.read(0, 10);
+
+            assertEquals(2, records.size());
+            assertEquals(90_000L, records.get(0).entry().balance());
+            assertEquals(end, records.get(1).position());
+            assertEquals(1, journal.read(end, 10).size());
+        } finally {
+            journal.destroy();
+        }
+    }
+
+    @Test
+    void reopen_shouldRecoverEntries_andContinueAfterThem() throws Exception {
+        MovementJournal journal = new MovementJournal(directory, DataSize.ofKilobytes(4));
+        journal.append(entry(1, 90_000L)).get(5, TimeUnit.SECONDS);
+        journal.destroy();
+
+        MovementJournal reopened = new MovementJournal(directory, DataSize.ofKilobytes(4));
+        try {
+            reopened.append(entry(2, 80_000L)).get(5, TimeUnit.SECONDS);
+
+            List<MovementJournal.Record> records = reopened.read(0, 10);
+
+            assertEquals(2, records.size());
+            assertEquals(80_000L, records.get(1).entry().balance());
+        } finally {
+            reopened.destroy();
+        }
+    }
+
+    @Test
+    void append_shouldRotateSegments_andReleaseAppliedOnes() throws Exception {
+        MovementJournal journal = new MovementJournal(directory, DataSize.ofKilobytes(1));
+        try {
+            long end = 0;
+            for (int i = 0; i < 40; i++) {
+                end = journal.append(entry(i, 1_000L * i)).get(5, TimeUnit.SECONDS);
+            }
+
+            List<MovementJournal.Record> records = journal.read(0, 100);
+            assertEquals(40, records.size());
+            assertEquals(39_000L, records.get(39).entry().balance());
+
+            journal.releaseBefore(end);
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(1, files.count());
+            }
+        } finally {
+            journal.destroy();
+        }
+    }
+
+    private JournalEntry entry(long accountId, long balance) {
+        return new JournalEntry(accountId, "12345", "Debito", 10_000L, balance, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,50 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.service.MovementPartitionManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MovementPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void maintain_shouldCreateUpcomingPartitions_andDetachExpiredOnes() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("movement_p202311", "movement_p202312", "movement_p202403", "movement_archive"));
+
+        new MovementPartitionManager(jdbcTemplate, 2, 3, "account").maintain(YearMonth.of(2024, 3));
+
+        verify(jdbcTemplate).execute(
+                "CREATE TABLE IF NOT EXISTS movement_p202404 PARTITION OF movement FOR VALUES FROM ('2024-04-01') TO ('2024-05-01')");
+        verify(jdbcTemplate).execute(
+                "CREATE TABLE IF NOT EXISTS movement_p202405 PARTITION OF movement FOR VALUES FROM ('2024-05-01') TO ('2024-06-01')");
+        verify(jdbcTemplate).execute("ALTER TABLE movement DETACH PARTITION movement_p202311");
+        verify(jdbcTemplate, times(3)).execute(anyString());
+    }
+
+    @Test
+    void maintain_shouldKeepEveryPartition_whenRetentionIsDisabled() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("movement_p200001", "movement_p202403"));
+
+        new MovementPartitionManager(jdbcTemplate, 0, 0, "account").maintain(YearMonth.of(2024, 3));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -1,26 +1,70 @@
 package com.bank.accounts.unit;
 
 import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.model.AccountBalanceSlot;
+import com.bank.accounts.domain.model.IdempotencyRecord;
+import com.bank.accounts.domain.model.Money;
 import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.AccountBalanceSlotRepository;
 import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.BalanceSnapshotRepository;
+import com.bank.accounts.domain.repository.DailyBalanceRepository;
+import com.bank.accounts.domain.repository.IdempotencyRecordRepository;
 import com.bank.accounts.domain.repository.MovementRepository;
+import com.bank.accounts.domain.service.AccountCache;
+import com.bank.accounts.domain.service.AccountLedger;
+import com.bank.accounts.domain.service.AccountLockStripes;
+import com.bank.accounts.domain.service.DailyBalanceRecorder;
+import com.bank.accounts.domain.service.IdempotencyStore;
 import com.bank.accounts.domain.service.MovementServiceImpl;
+import com.bank.accounts.domain.service.OptimisticRetry;
+import com.bank.accounts.domain.service.ReportCache;
+import com.bank.accounts.domain.service.ShardedBalances;
+import com.bank.accounts.model.dto.MovementBatchItemResult;
+import com.bank.accounts.model.dto.MovementBatchResponse;
 import com.bank.accounts.model.dto.MovementRequest;
 import com.bank.accounts.model.dto.MovementResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.SimpleTransactionStatus;
 import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,19 +73,39 @@ class MovementServiceImplTest {
     @Mock
     private MovementRepository movementRepository;
 
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private AccountBalanceSlotRepository slotRepository;
+
     @Mock
     private PlatformTransactionManager transactionManager;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private MovementServiceImpl movementService;
 
     @BeforeEach
     void setUp() {
         TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
         when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus(false));
-        movementService = new MovementServiceImpl(movementRepository, accountRepository, transactionTemplate);
+        movementService = new MovementServiceImpl(movementRepository,
+                new DailyBalanceRecorder(dailyBalanceRepository), accountRepository,
+                transactionTemplate, new AccountLockStripes(16), new AccountCache(accountRepository, 1000, Duration.ofMinutes(10)),
+                new OptimisticRetry(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(5)),
+                new AccountLedger(balanceSnapshotRepository), shardedBalances(), new ReportCache(100, Duration.ofMinutes(10)),
+                new IdempotencyStore(1000, Duration.ofHours(1)), idempotencyRecordRepository,
+                Schedulers.boundedElastic(), 500, false, "account");
     }
 
     @Test
@@ -49,7 +113,7 @@ class MovementServiceImplTest {
         Account account = new Account();
         account.setAccountId(1L);
         account.setAccountNumber("12345");
-        account.setInitialBalance(1000.0);
+        account.setInitialBalance(100_000L);
 
         MovementRequest request = new MovementRequest();
         request.setAccountNumber("12345");
@@ -72,7 +136,7 @@ class MovementServiceImplTest {
         Account account = new Account();
         account.setAccountId(1L);
         account.setAccountNumber("12345");
-        account.setInitialBalance(1000.0);
+        account.setInitialBalance(100_000L);
 
         MovementRequest request = new MovementRequest();
         request.setAccountNumber("12345");
@@ -90,12 +154,395 @@ class MovementServiceImplTest {
                 .verifyComplete();
     }
 
+    @Test
+    void createMovement_shouldNotLoseUpdates_whenSameAccountIsUpdatedConcurrently() {
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.CREDITO);
+        request.setValue(1.0);
+
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        Flux<MovementResponse> result = Flux.range(0, 200)
+                .flatMap(i -> movementService.createMovement(request), 32);
+
+        StepVerifier.create(result)
+                .expectNextCount(200)
+                .verifyComplete();
+
+        assertEquals(120_000L, account.getInitialBalance());
+    }
+
+    @Test
+    void createMovement_shouldSkipAccountLookup_whenAccountIsCached() {
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(100.0);
+
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+        when(accountRepository.updateBalance(1L, 0L, 80_000L)).thenReturn(1);
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        movementService.createMovement(request).block();
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectNextMatches(response -> response.getBalance() == 800.0)
+                .verifyComplete();
+
+        verify(accountRepository, times(1)).findByAccountNumber("12345");
+        verify(accountRepository, times(1)).save(any(Account.class));
+    }
+
+    @Test
+    void createMovement_shouldReloadAccount_whenCachedBalanceIsStale() {
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.CREDITO);
+        request.setValue(100.0);
+
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        movementService.createMovement(request).block();
+        // Another writer moves the balance on without going through this instance's cache.
+        account.setInitialBalance(500_000L);
+        when(accountRepository.updateBalance(1L, 0L, 120_000L)).thenReturn(0);
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectNextMatches(response -> response.getBalance() == 5100.0)
+                .verifyComplete();
+
+        verify(accountRepository, times(2)).findByAccountNumber("12345");
+    }
+
+    @Test
+    void createMovement_shouldReapplyOnFreshRead_whenCommitLosesVersionCheck() {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(100.0);
+
+        // Each read sees the committed row: the first attempt's read is overtaken by another writer.
+        when(accountRepository.findByAccountNumber("12345"))
+                .thenReturn(Optional.of(account(100_000L, 0L)))
+                .thenReturn(Optional.of(account(50_000L, 1L)));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectNextMatches(response -> response.getBalance() == 400.0)
+                .verifyComplete();
+
+        assertEquals(1.0, meterRegistry.counter("accounts.movements.conflicts").count());
+        assertEquals(1.0, meterRegistry.counter("accounts.movements.retries").count());
+    }
+
+    @Test
+    void createMovement_shouldGiveUp_afterBoundedRetries() {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.CREDITO);
+        request.setValue(100.0);
+
+        when(accountRepository.findByAccountNumber("12345")).thenAnswer(i -> Optional.of(account(100_000L, 0L)));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .when(transactionManager).commit(any());
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectError(ObjectOptimisticLockingFailureException.class)
+                .verify();
+
+        assertEquals(4.0, meterRegistry.counter("accounts.movements.conflicts").count());
+        assertEquals(3.0, meterRegistry.counter("accounts.movements.retries").count());
+    }
+
+    @Test
+    void createMovement_shouldAppendToLedger_withoutUpdatingAccount_inLedgerMode() {
+        MovementServiceImpl ledgerService = new MovementServiceImpl(movementRepository,
+                new DailyBalanceRecorder(dailyBalanceRepository), accountRepository,
+                new TransactionTemplate(transactionManager), new AccountLockStripes(16),
+                new AccountCache(accountRepository, 1000, Duration.ofMinutes(10)),
+                new OptimisticRetry(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(5)),
+                new AccountLedger(balanceSnapshotRepository), shardedBalances(), new ReportCache(100, Duration.ofMinutes(10)),
+                new IdempotencyStore(1000, Duration.ofHours(1)),
+                idempotencyRecordRepository, Schedulers.boundedElastic(), 500, false, "ledger");
+
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(100.0);
+
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account(100_000L, 0L)));
+        when(balanceSnapshotRepository.findLedgerPositions(List.of(1L)))
+                .thenReturn(List.of(ledgerPosition(new BigDecimal("750.00"), 7L)));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        StepVerifier.create(ledgerService.createMovement(request))
+                .expectNextMatches(response -> response.getBalance() == 650.0)
+                .verifyComplete();
+
+        verify(movementRepository).save(argThat(movement -> movement.getLedgerSequence() == 8L
+                && movement.getBalance() == 65_000L));
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void createCreditMovement_shouldAddToSlot_withoutUpdatingAccount_whenAccountIsSharded() {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("99999");
+        request.setMovementType(MovementRequest.MovementTypeEnum.CREDITO);
+        request.setValue(100.0);
+
+        when(accountRepository.findByAccountNumber("99999")).thenReturn(Optional.of(shardedAccount(50_000L)));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(shardedAccount(50_000L)));
+        when(slotRepository.aggregateBalance(2L)).thenReturn(new BigDecimal("600.00"));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectNextMatches(response -> response.getBalance() == 600.0)
+                .verifyComplete();
+
+        verify(slotRepository).addToSlot(eq(2L), anyInt(), eq(new BigDecimal("100.00")));
+        verify(accountRepository, never()).save(any(Account.class));
+        verify(accountRepository, never()).updateBalance(any(), anyLong(), anyLong());
+    }
+
+    /**
+     * Simulates READ COMMITTED: a transaction sees committed slot updates plus its own, and the
+     * account row lock is held until commit. The recorded balances must then step by the credits.
+     */
+    @Test
+    void concurrentCredits_shouldRecordRunningBalances_whenAccountIsSharded() {
+        Account account = shardedAccount(0L);
+        Map<Thread, Long> uncommitted = new ConcurrentHashMap<>();
+        AtomicLong committed = new AtomicLong();
+        ReentrantLock accountRow = new ReentrantLock();
+        List<Long> balances = Collections.synchronizedList(new ArrayList<>());
+
+        when(accountRepository.findByAccountNumber("99999")).thenReturn(Optional.of(account));
+        when(slotRepository.addToSlot(eq(2L), anyInt(), any(BigDecimal.class))).thenAnswer(i -> {
+            uncommitted.merge(Thread.currentThread(), Money.toMinorUnits(i.<BigDecimal>getArgument(2)), Long::sum);
+            return 1;
+        });
+        when(accountRepository.findByIdForUpdate(2L)).thenAnswer(i -> {
+            accountRow.lock();
+            return Optional.of(account);
+        });
+        when(slotRepository.aggregateBalance(2L)).thenAnswer(i ->
+                Money.toDecimal(committed.get() + uncommitted.getOrDefault(Thread.currentThread(), 0L)));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> {
+            balances.add(i.<Movement>getArgument(0).getBalance());
+            return i.getArgument(0);
+        });
+        doAnswer(i -> {
+            Long own = uncommitted.remove(Thread.currentThread());
+            if (own != null) {
+                committed.addAndGet(own);
+            }
+            if (accountRow.isHeldByCurrentThread()) {
+                accountRow.unlock();
+            }
+            return null;
+        }).when(transactionManager).commit(any());
+
+        MovementRequest credit = new MovementRequest();
+        credit.setAccountNumber("99999");
+        credit.setMovementType(MovementRequest.MovementTypeEnum.CREDITO);
+        credit.setValue(10.0);
+        int credits = 50;
+        Flux.range(0, credits)
+                .flatMap(i -> movementService.createMovement(credit), 8)
+                .then()
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(LongStream.rangeClosed(1, credits).map(i -> i * 1_000L).boxed().toList(),
+                balances.stream().sorted().toList());
+    }
+
+    @Test
+    void createDebitMovement_shouldRebalanceSlots_whenNoSingleSlotCoversIt() {
+        Account account = shardedAccount(10_000L);
+        List<AccountBalanceSlot> slots = List.of(slot(0, 5_000L), slot(1, 5_000L), slot(2, 5_000L), slot(3, 5_000L));
+
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("99999");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(250.0);
+
+        when(accountRepository.findByAccountNumber("99999")).thenReturn(Optional.of(account));
+        when(slotRepository.takeFromRichestSlot(2L, new BigDecimal("250.00"))).thenReturn(0);
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account));
+        when(slotRepository.findAllForUpdate(2L)).thenReturn(slots);
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectNextMatches(response -> response.getBalance() == 50.0)
+                .verifyComplete();
+
+        verify(slotRepository).createSlots(2L, 4);
+        assertEquals(0L, account.getInitialBalance());
+        slots.forEach(slot -> assertEquals(1_250L, slot.getBalance()));
+    }
+
+    @Test
+    void createDebitMovement_shouldFail_whenShardedAggregateIsInsufficient() {
+        Account account = shardedAccount(1_000L);
+
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("99999");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(100.0);
+
+        when(accountRepository.findByAccountNumber("99999")).thenReturn(Optional.of(account));
+        when(slotRepository.takeFromRichestSlot(2L, new BigDecimal("100.00"))).thenReturn(0);
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account));
+        when(slotRepository.findAllForUpdate(2L)).thenReturn(List.of(slot(0, 2_000L), slot(1, 3_000L)));
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectErrorMatches(e -> e.getMessage().equals("Saldo no disponible"))
+                .verify();
+
+        verify(movementRepository, never()).save(any(Movement.class));
+    }
+
+    @Test
+    void createMovement_shouldReplayOriginalResponse_whenIdempotencyKeyIsRepeated() {
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(100.0);
+
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        StepVerifier.create(movementService.createMovement(request, "retry-1"))
+                .expectNextMatches(response -> response.getBalance() == 900.0)
+                .verifyComplete();
+        StepVerifier.create(movementService.createMovement(request, "retry-1"))
+                .expectNextMatches(response -> response.getBalance() == 900.0)
+                .verifyComplete();
+
+        verify(accountRepository, times(1)).findByAccountNumber("12345");
+        assertEquals(90_000L, account.getInitialBalance());
+    }
+
+    @Test
+    void createMovement_shouldReplayRecordedMovement_whenAnotherInstanceRecordsTheKeyFirst() {
+        MovementServiceImpl persistentService = persistentIdempotencyService();
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(100.0);
+
+        Movement recorded = new Movement();
+        recorded.setMovementId(7L);
+        recorded.setAccountId(1L);
+        recorded.setDate(LocalDateTime.now());
+        recorded.setMovementType("Debito");
+        recorded.setValue(10_000L);
+        recorded.setBalance(90_000L);
+
+        when(idempotencyRecordRepository.findById("retry-1")).thenReturn(Optional.empty(), Optional.of(
+                new IdempotencyRecord("retry-1", IdempotencyStore.requestHash(request), 7L, LocalDateTime.now())));
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account(100_000L, 0L)));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(idempotencyRecordRepository.save(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+        when(movementRepository.findById(7L)).thenReturn(Optional.of(recorded));
+
+        StepVerifier.create(persistentService.createMovement(request, "retry-1"))
+                .expectNextMatches(response -> response.getMovementId() == 7L && response.getBalance() == 900.0)
+                .verifyComplete();
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void createMovement_shouldReject_whenRecordedKeyBelongsToADifferentRequest() {
+        MovementServiceImpl persistentService = persistentIdempotencyService();
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(100.0);
+
+        when(idempotencyRecordRepository.findById("retry-1"))
+                .thenReturn(Optional.of(new IdempotencyRecord("retry-1", 42L, 7L, LocalDateTime.now())));
+
+        StepVerifier.create(persistentService.createMovement(request, "retry-1"))
+                .expectErrorMessage("Idempotency key was already used with a different request")
+                .verify();
+        verify(movementRepository, never()).save(any(Movement.class));
+    }
+
+    @Test
+    void createMovements_shouldReportPartialFailuresWithoutAbortingBatch() {
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+
+        MovementRequest credit = new MovementRequest();
+        credit.setAccountNumber("12345");
+        credit.setMovementType(MovementRequest.MovementTypeEnum.CREDITO);
+        credit.setValue(100.0);
+
+        MovementRequest debit = new MovementRequest();
+        debit.setAccountNumber("12345");
+        debit.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        debit.setValue(5000.0);
+
+        when(accountRepository.findByAccountNumberIn(any())).thenReturn(List.of(account));
+        when(movementRepository.save(any(Movement.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        Mono<MovementBatchResponse> result = movementService.createMovements(Flux.just(credit, debit));
+
+        StepVerifier.create(result)
+                .expectNextMatches(response -> response.getApplied() == 1
+                        && response.getRejected() == 1
+                        && response.getResults().get(0).getMovement().getBalance() == 1100.0
+                        && response.getResults().get(1).getStatus() == MovementBatchItemResult.StatusEnum.REJECTED
+                        && "Saldo no disponible".equals(response.getResults().get(1).getError()))
+                .verifyComplete();
+    }
+
     @Test
     void createMovement_shouldFail_whenInsufficientFunds() {
         Account account = new Account();
         account.setAccountId(1L);
         account.setAccountNumber("12345");
-        account.setInitialBalance(100.0);
+        account.setInitialBalance(10_000L);
 
         MovementRequest request = new MovementRequest();
         request.setAccountNumber("12345");
@@ -137,7 +584,7 @@ class MovementServiceImplTest {
 
         Account account = new Account();
         account.setAccountNumber("12345");
-        account.setInitialBalance(1000.0);
+        account.setInitialBalance(100_000L);
         when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
 
         Mono<MovementResponse> result = movementService.createMovement(request);
@@ -145,4 +592,64 @@ class MovementServiceImplTest {
         StepVerifier.create(result)
                 .expectError(NullPointerException.class)                 .verify();
     }
+
+    private MovementServiceImpl persistentIdempotencyService() {
+        return new MovementServiceImpl(movementRepository,
+                new DailyBalanceRecorder(dailyBalanceRepository), accountRepository,
+                new TransactionTemplate(transactionManager), new AccountLockStripes(16),
+                new AccountCache(accountRepository, 1000, Duration.ofMinutes(10)),
+                new OptimisticRetry(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(5)),
+                new AccountLedger(balanceSnapshotRepository), shardedBalances(), new ReportCache(100, Duration.ofMinutes(10)),
+                new IdempotencyStore(1000, Duration.ofHours(1)),
+                idempotencyRecordRepository, Schedulers.boundedElastic(), 500, true, "account");
+    }
+
+    private Account account(long balance, long version) {
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(balance);
+        account.setVersion(version);
+        return account;
+    }
+
+    private Account shardedAccount(long balance) {
+        Account account = new Account();
+        account.setAccountId(2L);
+        account.setAccountNumber("99999");
+        account.setInitialBalance(balance);
+        return account;
+    }
+
+    private AccountBalanceSlot slot(int index, long balance) {
+        AccountBalanceSlot slot = new AccountBalanceSlot();
+        slot.setAccountId(2L);
+        slot.setSlot(index);
+        slot.setBalance(balance);
+        return slot;
+    }
+
+    private ShardedBalances shardedBalances() {
+        return new ShardedBalances(slotRepository, accountRepository,
+                new AccountCache(accountRepository, 1000, Duration.ofMinutes(10)), Set.of("99999"), 4);
+    }
+
+    private BalanceSnapshotRepository.LedgerPosition ledgerPosition(BigDecimal balance, long sequence) {
+        return new BalanceSnapshotRepository.LedgerPosition() {
+            @Override
+            public Long getAccountId() {
+                return 1L;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return balance;
+            }
+
+            @Override
+            public Long getLedgerSequence() {
+                return sequence;
+            }
+        };
+    }
 }
@@ -0,0 +1,129 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.model.Account;
+import com.bank.accounts.domain.repository.ReactiveAccountRepository;
+import com.bank.accounts.domain.service.R2dbcAccountServiceImpl;
+import com.bank.accounts.domain.service.ReportCache;
+import com.bank.accounts.model.dto.AccountRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class R2dbcAccountServiceImplTest {
+
+    @Mock
+    private ReactiveAccountRepository accountRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ReportCache reportCache;
+
+    private R2dbcAccountServiceImpl accountService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(i -> i.getArgument(0));
+        accountService = new R2dbcAccountServiceImpl(accountRepository, transactionalOperator, reportCache, 2);
+    }
+
+    @Test
+    void getAllAccounts_shouldReadKeysetPages_untilShortPage() {
+        when(accountRepository.findPageAfter(Long.MIN_VALUE, 2))
+                .thenReturn(Flux.just(account(1L, "111", 1L), account(2L, "222", 1L)));
+        when(accountRepository.findPageAfter(2L, 2)).thenReturn(Flux.just(account(3L, "333", 2L)));
+
+        StepVerifier.create(accountService.getAllAccounts())
+                .expectNextMatches(response -> response.getAccountId() == 1L && response.getInitialBalance() == 100.0)
+                .expectNextMatches(response -> response.getAccountId() == 2L)
+                .expectNextMatches(response -> response.getAccountId() == 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    void createAccount_shouldInsertAccount_andInvalidateReports() {
+        when(accountRepository.insert(any(Account.class))).thenAnswer(i -> {
+            Account account = i.getArgument(0);
+            account.setAccountId(51L);
+            return Mono.just(account);
+        });
+
+        StepVerifier.create(accountService.createAccount(request("444", 2L)))
+                .expectNextMatches(response -> response.getAccountId() == 51L && response.getInitialBalance() == 250.0)
+                .verifyComplete();
+
+        verify(reportCache).invalidate(2L);
+    }
+
+    @Test
+    void updateAccount_shouldInvalidateBothClients_whenAccountChangesOwner() {
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "111", 1L)));
+        when(accountRepository.update(any(Account.class))).thenAnswer(i -> Mono.just(i.getArgument(0)));
+
+        StepVerifier.create(accountService.updateAccount(1L, request("111", 2L)))
+                .expectNextMatches(response -> response.getClientId() == 2L)
+                .verifyComplete();
+
+        verify(reportCache).invalidate(1L);
+        verify(reportCache).invalidate(2L);
+    }
+
+    @Test
+    void updateAccount_shouldFailWithOptimisticLock_whenRowChangedSinceRead() {
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account(1L, "111", 1L)));
+        when(accountRepository.update(any(Account.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(accountService.updateAccount(1L, request("111", 1L)))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+
+        verify(reportCache, never()).invalidate(any());
+    }
+
+    @Test
+    void deleteAccount_shouldFail_whenAccountDoesNotExist() {
+        when(accountRepository.findById(9L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(accountService.deleteAccount(9L))
+                .expectErrorMessage("Account not found with id: 9")
+                .verify();
+
+        verify(accountRepository, never()).deleteById(any());
+    }
+
+    private Account account(Long id, String accountNumber, Long clientId) {
+        Account account = new Account();
+        account.setAccountId(id);
+        account.setAccountNumber(accountNumber);
+        account.setAccountType("Ahorro");
+        account.setInitialBalance(100_00L);
+        account.setStatus(true);
+        account.setClientId(clientId);
+        return account;
+    }
+
+    private AccountRequest request(String accountNumber, Long clientId) {
+        AccountRequest request = new AccountRequest();
+        request.setAccountNumber(accountNumber);
+        request.setAccountType(AccountRequest.AccountTypeEnum.AHORRO);
+        request.setInitialBalance(250.0);
+        request.setStatus(true);
+        request.setClientId(clientId);
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.ReactiveAccountRepository;
+import com.bank.accounts.domain.repository.ReactiveMovementRepository;
+import com.bank.accounts.domain.service.AccountCache;
+import com.bank.accounts.domain.service.IdempotencyStore;
+import com.bank.accounts.domain.service.R2dbcMovementServiceImpl;
+import com.bank.accounts.domain.service.ReportCache;
+import com.bank.accounts.model.dto.MovementRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class R2dbcMovementServiceImplTest {
+
+    @Mock
+    private ReactiveAccountRepository accountRepository;
+
+    @Mock
+    private ReactiveMovementRepository movementRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private R2dbcMovementServiceImpl movementService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(i -> i.getArgument(0));
+        movementService = movementService("account", Set.of(), false);
+    }
+
+    @Test
+    void checkBalanceMode_shouldRefuseLedgerModeShardedAccountsAndPersistentIdempotency() {
+        assertThrows(IllegalStateException.class, movementService("ledger", Set.of(), false)::checkBalanceMode);
+        assertThrows(IllegalStateException.class, movementService("account", Set.of("12345"), false)::checkBalanceMode);
+        assertThrows(IllegalStateException.class, movementService("account", Set.of(), true)::checkBalanceMode);
+        movementService.checkBalanceMode();
+    }
+
+    @Test
+    void createDebitMovement_shouldApplyDeltaInOneStatement() {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(100.0);
+
+        when(accountRepository.applyDelta("12345", -10_000L))
+                .thenReturn(Mono.just(new ReactiveAccountRepository.BalanceChange(1L, 1L, 90_000L)));
+        when(movementRepository.insert(any(Movement.class))).thenAnswer(i -> Mono.just(i.getArgument(0)));
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectNextMatches(response -> response.getBalance() == 900.0 && response.getValue() == 100.0)
+                .verifyComplete();
+    }
+
+    @Test
+    void createMovement_shouldFail_whenInsufficientFunds() {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("12345");
+        request.setMovementType(MovementRequest.MovementTypeEnum.DEBITO);
+        request.setValue(2000.0);
+
+        when(accountRepository.applyDelta("12345", -200_000L)).thenReturn(Mono.empty());
+        when(accountRepository.existsByAccountNumber("12345")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectErrorMessage("Saldo no disponible")
+                .verify();
+
+        verify(movementRepository, never()).insert(any(Movement.class));
+    }
+
+    @Test
+    void createMovement_shouldFail_whenAccountDoesNotExist() {
+        MovementRequest request = new MovementRequest();
+        request.setAccountNumber("99999");
+        request.setMovementType(MovementRequest.MovementTypeEnum.CREDITO);
+        request.setValue(10.0);
+
+        when(accountRepository.applyDelta("99999", 1_000L)).thenReturn(Mono.empty());
+        when(accountRepository.existsByAccountNumber("99999")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(movementService.createMovement(request))
+                .expectErrorMessage("Account not found")
+                .verify();
+    }
+
+    private R2dbcMovementServiceImpl movementService(String balanceMode, Set<String> shardedAccounts,
+                                                     boolean persistentIdempotency) {
+        return new R2dbcMovementServiceImpl(accountRepository, movementRepository, transactionalOperator,
+                new IdempotencyStore(1000, Duration.ofHours(1)),
+                new AccountCache(mock(AccountRepository.class), 1000, Duration.ofMinutes(10)),
+                new ReportCache(100, Duration.ofMinutes(10)), 500, balanceMode, shardedAccounts, persistentIdempotency);
+    }
+}
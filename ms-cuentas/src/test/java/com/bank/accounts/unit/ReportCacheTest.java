@@ -0,0 +1,80 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.service.ReportCache;
+import com.bank.accounts.model.dto.AccountStatementReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReportCacheTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 31);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ReportCache reportCache;
+
+    @BeforeEach
+    void setUp() {
+        reportCache = new ReportCache(meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void get_shouldServeRepeatedRequestsFromMemory() {
+        AccountStatementReport first = reportCache.get(1L, START, END, this::load).block();
+        AccountStatementReport second = reportCache.get(1L, START, END, this::load).block();
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1L, reportCache.stats().hitCount());
+        assertEquals(1L, reportCache.size());
+    }
+
+    @Test
+    void invalidate_shouldOnlyDropTheClientsReports() {
+        reportCache.get(1L, START, END, this::load).block();
+        reportCache.get(2L, START, END, this::load).block();
+
+        reportCache.invalidate(1L);
+        reportCache.get(1L, START, END, this::load).block();
+        reportCache.get(2L, START, END, this::load).block();
+
+        assertEquals(3, loads.get());
+        assertEquals(1.0, meterRegistry.counter("accounts.reports.cache.invalidations").count());
+    }
+
+    @Test
+    void get_shouldNotServeReport_whenClientChangedWhileItWasBuilt() {
+        reportCache.get(1L, START, END, () -> load().doOnNext(report -> reportCache.invalidate(1L))).block();
+        reportCache.get(1L, START, END, this::load).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldCache_afterClientWithoutReportsIsInvalidated() {
+        reportCache.invalidate(3L);
+        reportCache.get(3L, START, END, this::load).block();
+        reportCache.get(3L, START, END, this::load).block();
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, reportCache.size());
+    }
+
+    private Mono<AccountStatementReport> load() {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new AccountStatementReport();
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.service.ReportFileStore;
+import com.bank.accounts.domain.service.ReportJobService;
+import com.bank.accounts.domain.service.ReportService;
+import com.bank.accounts.model.dto.ReportJob;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ReportService reportService;
+
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() {
+        ReportFileStore fileStore = new ReportFileStore(new ObjectMapper(), directory);
+        reportJobService = new ReportJobService(reportService, fileStore, 1, 1, Duration.ZERO);
+    }
+
+    @Test
+    void submit_shouldShareOneComputation_forTheSameRange() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            JsonGenerator json = invocation.getArgument(3);
+            json.writeStartObject();
+            json.writeStringField("clientName", "Jose Lema");
+            json.writeEndObject();
+            return null;
+        }).when(reportService).writeAccountStatement(eq(1L), eq(START), eq(END), any());
+
+        ReportJob first = reportJobService.submit(1L, START, END).block();
+        ReportJob second = reportJobService.submit(1L, START, END).block();
+        assertEquals(first.getJobId(), second.getJobId());
+
+        release.countDown();
+        ReportJob done = awaitFinished(first.getJobId());
+
+        assertEquals(ReportJob.StatusEnum.DONE, done.getStatus());
+        Path result = reportJobService.getResult(first.getJobId()).block();
+        assertEquals("{\"clientName\":\"Jose Lema\"}", Files.readString(result));
+        verify(reportService, times(1)).writeAccountStatement(eq(1L), eq(START), eq(END), any());
+    }
+
+    @Test
+    void submit_shouldFailJob_andLeaveNoFile_whenReportFails() throws Exception {
+        doThrow(new RuntimeException("Customer replica not found"))
+                .when(reportService).writeAccountStatement(eq(1L), eq(START), eq(END), any());
+
+        ReportJob job = reportJobService.submit(1L, START, END).block();
+        ReportJob failed = awaitFinished(job.getJobId());
+
+        assertEquals(ReportJob.StatusEnum.FAILED, failed.getStatus());
+        assertEquals("Customer replica not found", failed.getError());
+        StepVerifier.create(reportJobService.getResult(job.getJobId()))
+                .expectErrorMatches(e -> e.getMessage().equals("Report job failed"))
+                .verify();
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void submit_shouldReject_whenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(reportService).writeAccountStatement(any(), any(), any(), any());
+
+        ReportJob running = reportJobService.submit(1L, START, END).block();
+        awaitStatus(running.getJobId(), ReportJob.StatusEnum.RUNNING);
+        ReportJob queued = reportJobService.submit(2L, START, END).block();
+
+        StepVerifier.create(reportJobService.submit(3L, START, END))
+                .expectErrorMatches(e -> e.getMessage().equals("Report job queue is full"))
+                .verify();
+        release.countDown();
+        awaitFinished(running.getJobId());
+        awaitFinished(queued.getJobId());
+    }
+
+    @Test
+    void getJob_shouldFail_forUnknownJob() {
+        StepVerifier.create(reportJobService.getJob("missing"))
+                .expectErrorMatches(e -> e.getMessage().equals("Report job not found"))
+                .verify();
+    }
+
+    @Test
+    void purgeExpired_shouldForgetFinishedJobs_andDeleteTheirFiles() throws Exception {
+        ReportJob job = reportJobService.submit(1L, START, END).block();
+        awaitFinished(job.getJobId());
+        assertTrue(Files.exists(directory.resolve(job.getJobId() + ".json")));
+
+        reportJobService.purgeExpired();
+
+        assertTrue(Files.notExists(directory.resolve(job.getJobId() + ".json")));
+        StepVerifier.create(reportJobService.getJob(job.getJobId()))
+                .expectErrorMatches(e -> e.getMessage().equals("Report job not found"))
+                .verify();
+    }
+
+    private ReportJob awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ReportJob job = reportJobService.getJob(jobId).block();
+            if (job.getStatus() == ReportJob.StatusEnum.DONE || job.getStatus() == ReportJob.StatusEnum.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Report job did not finish");
+    }
+
+    private void awaitStatus(String jobId, ReportJob.StatusEnum status) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (reportJobService.getJob(jobId).block().getStatus() == status) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Report job did not reach " + status);
+    }
+}
@@ -2,24 +2,52 @@ package com.bank.accounts.unit;
 
 import com.bank.accounts.domain.model.Account;
 import com.bank.accounts.domain.model.CustomerReplica;
+import com.bank.accounts.domain.model.Movement;
+import com.bank.accounts.domain.repository.AccountBalanceSlotRepository;
 import com.bank.accounts.domain.repository.AccountRepository;
+import com.bank.accounts.domain.repository.BalanceSnapshotRepository;
 import com.bank.accounts.domain.repository.CustomerReplicaRepository;
+import com.bank.accounts.domain.repository.DailyBalanceRepository;
 import com.bank.accounts.domain.repository.MovementRepository;
+import com.bank.accounts.domain.service.AccountBalances;
+import com.bank.accounts.domain.service.AccountCache;
+import com.bank.accounts.domain.service.AccountLedger;
+import com.bank.accounts.domain.service.ReportCache;
 import com.bank.accounts.domain.service.ReportServiceImpl;
+import com.bank.accounts.domain.service.ShardedBalances;
+import com.bank.accounts.model.dto.AccountReportDetails;
+import com.bank.accounts.model.dto.AccountStatementLine;
 import com.bank.accounts.model.dto.AccountStatementReport;
+import com.bank.accounts.model.dto.MovementReportDetails;
+import com.bank.accounts.model.dto.PeriodActivity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,22 +59,41 @@ class ReportServiceImplTest {
     @Mock
     private MovementRepository movementRepository;
 
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
     @Mock
     private CustomerReplicaRepository customerReplicaRepository;
 
-    @InjectMocks
+    @Mock
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
     private ReportServiceImpl reportService;
 
+    @BeforeEach
+    void setUp() {
+        ShardedBalances shardedBalances = new ShardedBalances(slotRepository, accountRepository,
+                new AccountCache(accountRepository, 1000, Duration.ofMinutes(10)), Set.of("99999"), 8);
+        AccountBalances accountBalances = new AccountBalances(new AccountLedger(balanceSnapshotRepository),
+                shardedBalances, "account");
+        reportService = new ReportServiceImpl(accountRepository, movementRepository, dailyBalanceRepository,
+                customerReplicaRepository, accountBalances, new ReportCache(100, Duration.ofMinutes(10)),
+                Schedulers.immediate(), 2, 2);
+    }
+
     @Test
     void getAccountStatement_shouldReturnReport() {
-        CustomerReplica customer = new CustomerReplica(1L, "Jose Lema");
+        CustomerReplica customer = new CustomerReplica(1L, "Jose Lema", 0L);
         Account account = new Account();
         account.setAccountId(1L);
         account.setAccountNumber("12345");
 
         when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(customer));
         when(accountRepository.findByClientId(1L)).thenReturn(List.of(account)); // Devolver una lista con una cuenta
-        when(movementRepository.findByAccountIdAndDateBetween(any(), any(), any())).thenReturn(List.of());
+        when(movementRepository.findByAccountIdInAndDateBetweenOrderByAccountIdAscDateAscMovementIdAsc(any(), any(), any())).thenReturn(List.of());
 
         Mono<AccountStatementReport> result = reportService.getAccountStatement(1L, LocalDate.now(), LocalDate.now());
 
@@ -55,6 +102,276 @@ class ReportServiceImplTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getAccountStatement_shouldReportOpeningAndClosingBalance_fromCheckpoints() {
+        CustomerReplica customer = new CustomerReplica(1L, "Jose Lema", 0L);
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(130_000L);
+
+        when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+        when(movementRepository.findByAccountIdInAndDateBetweenOrderByAccountIdAscDateAscMovementIdAsc(any(), any(), any())).thenReturn(List.of());
+        when(dailyBalanceRepository.findStatementBalances(List.of(1L), LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))
+                .thenReturn(List.of(statementBalance(1L, "1000.00", "250.00", "500.00")));
+
+        StepVerifier.create(reportService.getAccountStatement(1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))
+                .expectNextMatches(report -> {
+                    AccountReportDetails details = report.getAccounts().get(0);
+                    return details.getOpeningBalance() == 1000.0
+                            && details.getTotalDebits() == 250.0
+                            && details.getTotalCredits() == 500.0
+                            && details.getClosingBalance() == 1250.0;
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getAccountStatement_shouldReportAggregateBalance_forShardedAccount() {
+        CustomerReplica customer = new CustomerReplica(1L, "Jose Lema", 0L);
+        Account account = new Account();
+        account.setAccountId(2L);
+        account.setAccountNumber("99999");
+        account.setInitialBalance(10_000L);
+
+        when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+        when(slotRepository.aggregateBalance(2L)).thenReturn(new BigDecimal("425.50"));
+        when(movementRepository.findByAccountIdInAndDateBetweenOrderByAccountIdAscDateAscMovementIdAsc(any(), any(), any())).thenReturn(List.of());
+
+        StepVerifier.create(reportService.getAccountStatement(1L, LocalDate.now(), LocalDate.now()))
+                .expectNextMatches(report -> report.getAccounts().get(0).getInitialBalance() == 425.5)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAccountStatement_shouldOpenAtLedgerBalance_whenLedgerAccountHasNoCheckpoints() {
+        ReportServiceImpl ledgerReports = new ReportServiceImpl(accountRepository, movementRepository,
+                dailyBalanceRepository, customerReplicaRepository,
+                new AccountBalances(new AccountLedger(balanceSnapshotRepository), new ShardedBalances(slotRepository,
+                        accountRepository, new AccountCache(accountRepository, 1000, Duration.ofMinutes(10)), Set.of(), 8),
+                        "ledger"),
+                new ReportCache(100, Duration.ofMinutes(10)), Schedulers.immediate(), 2, 2);
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+
+        when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(new CustomerReplica(1L, "Jose Lema", 0L)));
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+        when(balanceSnapshotRepository.findLedgerPositions(List.of(1L))).thenReturn(List.of(ledgerPosition(1L, "750.00")));
+        when(movementRepository.findByAccountIdInAndDateBetweenOrderByAccountIdAscDateAscMovementIdAsc(any(), any(), any())).thenReturn(List.of());
+        when(dailyBalanceRepository.findStatementBalances(List.of(1L), LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))
+                .thenReturn(List.of(statementBalance(1L, null, "0.00", "0.00")));
+
+        StepVerifier.create(ledgerReports.getAccountStatement(1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))
+                .expectNextMatches(report -> report.getAccounts().get(0).getOpeningBalance() == 750.0
+                        && report.getAccounts().get(0).getClosingBalance() == 750.0)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAccountStatement_shouldOpenAtAggregateBalance_whenShardedAccountHasNoCheckpoints() {
+        Account account = new Account();
+        account.setAccountId(2L);
+        account.setAccountNumber("99999");
+        account.setInitialBalance(10_000L);
+
+        when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(new CustomerReplica(1L, "Jose Lema", 0L)));
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+        when(slotRepository.aggregateBalance(2L)).thenReturn(new BigDecimal("425.50"));
+        when(movementRepository.findByAccountIdInAndDateBetweenOrderByAccountIdAscDateAscMovementIdAsc(any(), any(), any())).thenReturn(List.of());
+        when(dailyBalanceRepository.findStatementBalances(List.of(2L), LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))
+                .thenReturn(List.of(statementBalance(2L, null, "0.00", "0.00")));
+
+        StepVerifier.create(reportService.getAccountStatement(1L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)))
+                .expectNextMatches(report -> report.getAccounts().get(0).getOpeningBalance() == 425.5
+                        && report.getAccounts().get(0).getClosingBalance() == 425.5)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamAccountStatement_shouldEmitClientThenAccountThenMovements_pageByPage() {
+        CustomerReplica customer = new CustomerReplica(1L, "Jose Lema", 0L);
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        Movement first = movement(1L, day.atTime(9, 0), 1_000L);
+        Movement second = movement(2L, day.atTime(10, 0), 2_000L);
+        Movement third = movement(3L, day.atTime(11, 0), 3_000L);
+
+        when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+        when(movementRepository.findPageAfter(eq(1L), eq(day.atStartOfDay()), eq(Long.MIN_VALUE), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(first, second));
+        when(movementRepository.findPageAfter(eq(1L), eq(second.getDate()), eq(2L), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(third));
+
+        StepVerifier.create(reportService.streamAccountStatement(1L, day, day))
+                .expectNextMatches(line -> line.getType() == AccountStatementLine.TypeEnum.CLIENT
+                        && line.getClientName().equals("Jose Lema"))
+                .expectNextMatches(line -> line.getType() == AccountStatementLine.TypeEnum.ACCOUNT
+                        && line.getInitialBalance() == 1000.0)
+                .expectNextMatches(line -> line.getType() == AccountStatementLine.TypeEnum.MOVEMENT && line.getValue() == 10.0)
+                .expectNextMatches(line -> line.getValue() == 20.0)
+                .expectNextMatches(line -> line.getValue() == 30.0 && line.getAccountNumber().equals("12345"))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamAccountStatement_shouldReadPagesOnDemand_whenClientIsSlow() {
+        CustomerReplica customer = new CustomerReplica(1L, "Jose Lema", 0L);
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+        LocalDate day = LocalDate.of(2024, 3, 1);
+
+        when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+        // Every page is full, so there is always another one to read.
+        AtomicInteger pagesRead = new AtomicInteger();
+        when(movementRepository.findPageAfter(eq(1L), any(), any(), any(), eq(Limit.of(2)))).thenAnswer(invocation -> {
+            long page = pagesRead.incrementAndGet();
+            return List.of(movement(page * 2 - 1, day.atTime(9, 0).plusMinutes(page * 2 - 1), 1_000L),
+                    movement(page * 2, day.atTime(9, 0).plusMinutes(page * 2), 1_000L));
+        });
+
+        // Client line, account line and the first movement only.
+        StepVerifier.create(reportService.streamAccountStatement(1L, day, day), 3)
+                .expectNextCount(3)
+                .thenCancel()
+                .verify();
+
+        // The page being consumed and at most one read ahead.
+        assertTrue(pagesRead.get() <= 2, "pages read: " + pagesRead.get());
+    }
+
+    @Test
+    void streamAccountStatement_shouldFailBeforeAnyLine_whenCustomerReplicaNotFound() {
+        when(customerReplicaRepository.findById(99L)).thenReturn(Optional.empty());
+
+        StepVerifier.create(reportService.streamAccountStatement(99L, LocalDate.now(), LocalDate.now()))
+                .expectErrorMessage("Customer replica not found")
+                .verify();
+    }
+
+    @Test
+    void writeAccountStatement_shouldWriteReportJson_pageByPage() throws Exception {
+        CustomerReplica customer = new CustomerReplica(1L, "Jose Lema", 0L);
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+        account.setInitialBalance(100_000L);
+
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        Movement first = movement(1L, day.atTime(9, 0), 1_000L);
+        Movement second = movement(2L, day.atTime(10, 0), 2_000L);
+        Movement third = movement(3L, day.atTime(11, 0), 3_000L);
+
+        when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+        when(movementRepository.findPageAfter(eq(1L), eq(day.atStartOfDay()), eq(Long.MIN_VALUE), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(first, second));
+        when(movementRepository.findPageAfter(eq(1L), eq(second.getDate()), eq(2L), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(third));
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        StringWriter out = new StringWriter();
+        try (JsonGenerator json = objectMapper.createGenerator(out)) {
+            reportService.writeAccountStatement(1L, day, day, json);
+        }
+
+        AccountStatementReport report = objectMapper.readValue(out.toString(), AccountStatementReport.class);
+        assertEquals("Jose Lema", report.getClientName());
+        AccountReportDetails details = report.getAccounts().get(0);
+        assertEquals("12345", details.getAccountNumber());
+        assertEquals(1000.0, details.getOpeningBalance());
+        assertEquals(List.of(10.0, 20.0, 30.0), details.getMovements().stream().map(MovementReportDetails::getValue).toList());
+    }
+
+    @Test
+    void getActivitySummary_shouldGroupPeriodsByAccount_inMinorUnits() {
+        Account first = new Account();
+        first.setAccountId(1L);
+        first.setAccountNumber("12345");
+        Account second = new Account();
+        second.setAccountId(2L);
+        second.setAccountNumber("67890");
+        LocalDate start = LocalDate.of(2024, 3, 1);
+
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(first, second));
+        when(movementRepository.summarizeByWeek(eq(List.of(1L, 2L)), eq(start.atStartOfDay()), any()))
+                .thenReturn(List.of(periodSummary(1L, LocalDate.of(2024, 2, 26), 3L, "15.25", "100.00")));
+
+        StepVerifier.create(reportService.getActivitySummary(1L, start, start.plusDays(6), "week"))
+                .assertNext(summary -> {
+                    assertEquals("WEEK", summary.getPeriod());
+                    assertEquals(1, summary.getAccounts().get(0).getPeriods().size());
+                    PeriodActivity week = summary.getAccounts().get(0).getPeriods().get(0);
+                    assertEquals(LocalDate.of(2024, 2, 26), week.getPeriodStart());
+                    assertEquals(3L, week.getMovementCount());
+                    assertEquals(15.25, week.getTotalDebits());
+                    assertEquals(100.0, week.getTotalCredits());
+                    assertEquals(1000.0, week.getMinBalance());
+                    assertEquals(0, summary.getAccounts().get(1).getPeriods().size());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getActivitySummary_shouldFail_whenPeriodIsUnknown() {
+        Account account = new Account();
+        account.setAccountId(1L);
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+
+        StepVerifier.create(reportService.getActivitySummary(1L, LocalDate.now(), LocalDate.now(), "YEAR"))
+                .expectErrorMessage("Invalid summary period: YEAR")
+                .verify();
+    }
+
+    @Test
+    void getAccountStatementPage_shouldReturnOnePage_andCursorResumingAfterIt() {
+        CustomerReplica customer = new CustomerReplica(1L, "Jose Lema", 0L);
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setAccountNumber("12345");
+
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        Movement first = movement(1L, day.atTime(9, 0), 1_000L);
+        Movement second = movement(2L, day.atTime(10, 0), 2_000L);
+        Movement third = movement(3L, day.atTime(11, 0), 3_000L);
+
+        when(customerReplicaRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(accountRepository.findByClientId(1L)).thenReturn(List.of(account));
+        when(movementRepository.findStatementPageAfter(eq(List.of(1L)), eq(day.atStartOfDay()), any(),
+                eq(Long.MIN_VALUE), eq(day.atStartOfDay()), eq(Long.MIN_VALUE), eq(Limit.of(3))))
+                .thenReturn(List.of(first, second, third));
+        when(movementRepository.findStatementPageAfter(eq(List.of(1L)), eq(day.atStartOfDay()), any(),
+                eq(1L), eq(second.getDate()), eq(2L), eq(Limit.of(3))))
+                .thenReturn(List.of(third));
+
+        AccountStatementReport firstPage = reportService.getAccountStatementPage(1L, day, day, null, 5).block();
+        assertEquals(2, firstPage.getAccounts().get(0).getMovements().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        AccountStatementReport lastPage = reportService.getAccountStatementPage(1L, day, day, firstPage.getNextCursor(), 2).block();
+        assertEquals(1, lastPage.getAccounts().get(0).getMovements().size());
+        assertEquals(30.0, lastPage.getAccounts().get(0).getMovements().get(0).getValue());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void getAccountStatementPage_shouldFail_whenCursorIsMalformed() {
+        StepVerifier.create(reportService.getAccountStatementPage(1L, LocalDate.now(), LocalDate.now(), "not-a-cursor", 10))
+                .expectErrorMessage("Invalid page cursor")
+                .verify();
+    }
+
     @Test
     void getAccountStatement_shouldFail_whenCustomerReplicaNotFound() {
         when(customerReplicaRepository.findById(99L)).thenReturn(Optional.empty());
@@ -65,4 +382,98 @@ class ReportServiceImplTest {
                 .expectErrorMessage("Customer replica not found")
                 .verify();
     }
+
+    private Movement movement(Long movementId, LocalDateTime date, long value) {
+        Movement movement = new Movement();
+        movement.setMovementId(movementId);
+        movement.setAccountId(1L);
+        movement.setDate(date);
+        movement.setMovementType("Credito");
+        movement.setValue(value);
+        movement.setBalance(100_000L + value);
+        return movement;
+    }
+
+    private MovementRepository.PeriodSummary periodSummary(Long accountId, LocalDate periodStart, long count,
+                                                           String debits, String credits) {
+        return new MovementRepository.PeriodSummary() {
+            @Override
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public LocalDate getPeriodStart() {
+                return periodStart;
+            }
+
+            @Override
+            public Long getMovementCount() {
+                return count;
+            }
+
+            @Override
+            public BigDecimal getTotalDebits() {
+                return new BigDecimal(debits);
+            }
+
+            @Override
+            public BigDecimal getTotalCredits() {
+                return new BigDecimal(credits);
+            }
+
+            @Override
+            public BigDecimal getMinBalance() {
+                return new BigDecimal("1000.00");
+            }
+
+            @Override
+            public BigDecimal getMaxBalance() {
+                return new BigDecimal("1100.00");
+            }
+        };
+    }
+
+    private DailyBalanceRepository.StatementBalance statementBalance(Long accountId, String opening, String debits, String credits) {
+        return new DailyBalanceRepository.StatementBalance() {
+            @Override
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public BigDecimal getOpeningBalance() {
+                return opening != null ? new BigDecimal(opening) : null;
+            }
+
+            @Override
+            public BigDecimal getTotalDebits() {
+                return new BigDecimal(debits);
+            }
+
+            @Override
+            public BigDecimal getTotalCredits() {
+                return new BigDecimal(credits);
+            }
+        };
+    }
+
+    private BalanceSnapshotRepository.LedgerPosition ledgerPosition(Long accountId, String balance) {
+        return new BalanceSnapshotRepository.LedgerPosition() {
+            @Override
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+
+            @Override
+            public Long getLedgerSequence() {
+                return 7L;
+            }
+        };
+    }
 }
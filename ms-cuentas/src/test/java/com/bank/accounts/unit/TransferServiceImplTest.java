@@ -0,0 +1,66 @@
+package com.bank.accounts.unit;
+
+import com.bank.accounts.domain.service.MovementService;
+import com.bank.accounts.domain.service.TransferServiceImpl;
+import com.bank.accounts.model.dto.MovementRequest;
+import com.bank.accounts.model.dto.MovementResponse;
+import com.bank.accounts.model.dto.TransferRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferServiceImplTest {
+
+    @Mock
+    private MovementService movementService;
+
+    @Test
+    void createTransfer_shouldDebitSourceAndCreditTarget_asOneUnit() {
+        MovementResponse debit = new MovementResponse();
+        debit.setBalance(900.0);
+        MovementResponse credit = new MovementResponse();
+        credit.setBalance(1100.0);
+
+        when(movementService.createMovementsAtomically(argThat(movements -> movements.size() == 2
+                && movements.get(0).getAccountNumber().equals("111")
+                && movements.get(0).getMovementType() == MovementRequest.MovementTypeEnum.DEBITO
+                && movements.get(1).getAccountNumber().equals("222")
+                && movements.get(1).getMovementType() == MovementRequest.MovementTypeEnum.CREDITO)))
+                .thenReturn(Mono.just(List.of(debit, credit)));
+
+        StepVerifier.create(new TransferServiceImpl(movementService).createTransfer(transfer("111", "222", 100.0)))
+                .expectNextMatches(response -> response.getDebit().getBalance() == 900.0
+                        && response.getCredit().getBalance() == 1100.0
+                        && response.getValue() == 100.0)
+                .verifyComplete();
+    }
+
+    @Test
+    void createTransfer_shouldFail_whenSourceAndTargetAreTheSameAccount() {
+        StepVerifier.create(new TransferServiceImpl(movementService).createTransfer(transfer("111", "111", 100.0)))
+                .expectErrorMessage("Source and target accounts must be different")
+                .verify();
+
+        verify(movementService, never()).createMovementsAtomically(any());
+    }
+
+    private TransferRequest transfer(String source, String target, double value) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountNumber(source);
+        request.setTargetAccountNumber(target);
+        request.setValue(value);
+        return request;
+    }
+}